@@ -0,0 +1,65 @@
+#!/usr/bin/env bash
+# Compara el arranque de las tres imagenes: JVM (Dockerfile), JVM + AppCDS (Dockerfile.cds) y
+# nativa (Dockerfile.native). Para cada una mide el tiempo hasta que /actuator/health responde UP,
+# el tiempo que reporta Spring Boot y la memoria residente del contenedor ya arrancado.
+#
+# Uso: scripts/compare-startup.sh [repeticiones]   (por defecto 5)
+# Requiere docker y curl. Config server y Eureka se desactivan; Mongo corre en un contenedor.
+set -euo pipefail
+
+RUNS="${1:-5}"
+NETWORK=microservicio02-startup
+MONGO=microservicio02-startup-mongo
+PORT=8008
+
+cd "$(dirname "$0")/.."
+
+declare -A DOCKERFILES=(
+  [jvm]=Dockerfile
+  [cds]=Dockerfile.cds
+  [native]=Dockerfile.native
+)
+
+cleanup() {
+  docker rm -f "$MONGO" microservicio02-startup-app >/dev/null 2>&1 || true
+  docker network rm "$NETWORK" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+docker network create "$NETWORK" >/dev/null
+docker run -d --rm --name "$MONGO" --network "$NETWORK" mongo:7.0 >/dev/null
+
+for mode in jvm cds native; do
+  docker build -q -f "${DOCKERFILES[$mode]}" -t "microservicio02:$mode" . >/dev/null
+done
+
+now_ms() {
+  date +%s%3N
+}
+
+printf '%-7s %4s %12s %12s %10s\n' mode run "ready (ms)" "boot (s)" "RSS"
+for mode in jvm cds native; do
+  for run in $(seq 1 "$RUNS"); do
+    start=$(now_ms)
+    docker run -d --rm --name microservicio02-startup-app --network "$NETWORK" -p "$PORT:$PORT" \
+      -e SERVER_PORT="$PORT" \
+      -e SPRING_DATA_MONGODB_URI="mongodb://$MONGO:27017/account" \
+      -e SPRING_CLOUD_CONFIG_ENABLED=false \
+      -e SPRING_CLOUD_CONFIG_IMPORT_CHECK_ENABLED=false \
+      -e EUREKA_CLIENT_ENABLED=false \
+      -e APPLICATION_ENDPOINTS_URL_CUSTOMER=http://localhost \
+      -e APPLICATION_ENDPOINTS_URL_CREDIT=http://localhost \
+      -e APPLICATION_ENDPOINTS_URL_TRANSACTION=http://localhost \
+      "microservicio02:$mode" >/dev/null
+    until curl -fs "http://localhost:$PORT/actuator/health" | grep -q '"status":"UP"'; do
+      sleep 0.05
+    done
+    ready=$(($(now_ms) - start))
+    boot=$(docker logs microservicio02-startup-app 2>&1 \
+      | sed -n 's/.*Started Microservicio02Application in \([0-9.]*\) seconds.*/\1/p')
+    rss=$(docker stats --no-stream --format '{{.MemUsage}}' microservicio02-startup-app \
+      | cut -d/ -f1)
+    printf '%-7s %4d %12d %12s %10s\n' "$mode" "$run" "$ready" "${boot:-?}" "$rss"
+    docker rm -f microservicio02-startup-app >/dev/null
+  done
+done
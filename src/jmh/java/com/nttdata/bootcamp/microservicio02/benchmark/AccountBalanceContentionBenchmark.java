@@ -0,0 +1,101 @@
+package com.nttdata.bootcamp.microservicio02.benchmark;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.nttdata.bootcamp.microservicio02.config.AccountCache;
+import com.nttdata.bootcamp.microservicio02.config.PipelineMetrics;
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.model.AccountType;
+import com.nttdata.bootcamp.microservicio02.repository.AccountRepository;
+import com.nttdata.bootcamp.microservicio02.repository.AccountRepositoryCustomImpl;
+import com.nttdata.bootcamp.microservicio02.service.impl.AccountServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Muchos escritores concurrentes sobre una misma cuenta. Necesita un Mongo accesible en {@code
+ * -Dbenchmark.mongo.uri} (por defecto {@code mongodb://localhost:27017}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(32)
+@Fork(1)
+public class AccountBalanceContentionBenchmark {
+
+  private MongoClient mongoClient;
+
+  private ReactiveMongoTemplate template;
+
+  private AccountServiceImpl accountService;
+
+  private String accountId;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    mongoClient =
+        MongoClients.create(System.getProperty("benchmark.mongo.uri", "mongodb://localhost:27017"));
+    template = new ReactiveMongoTemplate(mongoClient, "benchmark");
+
+    AccountRepositoryCustomImpl customImpl = new AccountRepositoryCustomImpl();
+    ReflectionTestUtils.setField(customImpl, "reactiveMongoTemplate", template);
+    AccountRepository accountRepository =
+        new ReactiveMongoRepositoryFactory(template)
+            .getRepository(AccountRepository.class, RepositoryFragments.just(customImpl));
+
+    accountService = new AccountServiceImpl();
+    ReflectionTestUtils.setField(accountService, "accountRepository", accountRepository);
+    ReflectionTestUtils.setField(accountService, "dailyAverageZone", ZoneId.of("America/Lima"));
+    PipelineMetrics pipelineMetrics = new PipelineMetrics();
+    ReflectionTestUtils.setField(pipelineMetrics, "meterRegistry", new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(accountService, "pipelineMetrics", pipelineMetrics);
+    AccountCache accountCache = new AccountCache();
+    ReflectionTestUtils.setField(accountCache, "maximumSize", 1_000L);
+    ReflectionTestUtils.setField(accountCache, "ttl", Duration.ofMinutes(1));
+    ReflectionTestUtils.setField(accountCache, "meterRegistry", new SimpleMeterRegistry());
+    accountCache.init();
+    ReflectionTestUtils.setField(accountService, "accountCache", accountCache);
+
+    Account account = new Account();
+    account.setId(UUID.randomUUID().toString());
+    account.setAccountNumber(UUID.randomUUID().toString());
+    account.setAccountType(AccountType.CURRENT);
+    account.setAmountAvailable(BigDecimal.ZERO);
+    account.setActive(true);
+    accountId = template.insert(account).block().getId();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    template.dropCollection(Account.class).block();
+    mongoClient.close();
+  }
+
+  @Benchmark
+  public Account credit() {
+    return accountService.credit(accountId, BigDecimal.ONE).block();
+  }
+}
@@ -0,0 +1,134 @@
+package com.nttdata.bootcamp.microservicio02.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.nttdata.bootcamp.microservicio02.config.AccountCache;
+import com.nttdata.bootcamp.microservicio02.config.AdmissionControl;
+import com.nttdata.bootcamp.microservicio02.config.PipelineMetrics;
+import com.nttdata.bootcamp.microservicio02.config.WebClientHelper;
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.model.AccountType;
+import com.nttdata.bootcamp.microservicio02.model.Credit;
+import com.nttdata.bootcamp.microservicio02.model.CreditType;
+import com.nttdata.bootcamp.microservicio02.model.Customer;
+import com.nttdata.bootcamp.microservicio02.model.request.AccountRequest;
+import com.nttdata.bootcamp.microservicio02.repository.AccountRepository;
+import com.nttdata.bootcamp.microservicio02.service.AccountNumberService;
+import com.nttdata.bootcamp.microservicio02.service.TransactionOutboxService;
+import com.nttdata.bootcamp.microservicio02.service.impl.AccountServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Latencia extremo a extremo de {@code create} con dependencias simuladas que tardan {@code
+ * downstreamDelayMs} cada una. {@code serialBaseline} encadena las mismas tres consultas una
+ * detras de otra, como hacia el pipeline antes del fan-out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountCreateBenchmark {
+
+  @Param({"5", "20"})
+  public long downstreamDelayMs;
+
+  private AccountServiceImpl accountService;
+
+  private AccountRepository accountRepository;
+
+  private WebClientHelper webClientHelper;
+
+  private AccountRequest request;
+
+  @Setup
+  public void setup() {
+    Duration delay = Duration.ofMillis(downstreamDelayMs);
+
+    Customer customer = new Customer();
+    customer.setId("customer-1");
+    customer.setCustomerType(AccountServiceImpl.PERSONAL);
+    customer.setCustomerSubType(AccountServiceImpl.VIP);
+
+    Credit cardBank = new Credit("credit-1", "customer-1", CreditType.CARD_BANK, true);
+
+    accountRepository = mock(AccountRepository.class);
+    when(accountRepository.existsByCustomerAndAccountType(anyString(), any(AccountType.class)))
+        .thenAnswer(invocation -> Mono.just(false).delayElement(delay));
+    when(accountRepository.insert(any(Account.class)))
+        .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+    webClientHelper = mock(WebClientHelper.class);
+    when(webClientHelper.findByIdCustomerService(anyString()))
+        .thenAnswer(invocation -> Mono.just(customer).delayElement(delay));
+    when(webClientHelper.findByIdCreditService(anyString()))
+        .thenAnswer(invocation -> Flux.just(cardBank).delaySubscription(delay));
+    when(webClientHelper.hasActiveCardBank(anyString()))
+        .thenAnswer(invocation -> Mono.just(true).delaySubscription(delay));
+
+    accountService = new AccountServiceImpl();
+    ReflectionTestUtils.setField(accountService, "accountRepository", accountRepository);
+    ReflectionTestUtils.setField(accountService, "webClientHelper", webClientHelper);
+    ReflectionTestUtils.setField(
+        accountService, "transactionOutboxService", mock(TransactionOutboxService.class));
+    AccountNumberService accountNumberService = mock(AccountNumberService.class);
+    when(accountNumberService.next()).thenReturn(Mono.just("191000000000012"));
+    ReflectionTestUtils.setField(accountService, "accountNumberService", accountNumberService);
+    ReflectionTestUtils.setField(accountService, "dailyAverageZone", ZoneId.of("America/Lima"));
+    PipelineMetrics pipelineMetrics = new PipelineMetrics();
+    ReflectionTestUtils.setField(pipelineMetrics, "meterRegistry", new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(accountService, "pipelineMetrics", pipelineMetrics);
+    AccountCache accountCache = new AccountCache();
+    ReflectionTestUtils.setField(accountCache, "maximumSize", 1_000L);
+    ReflectionTestUtils.setField(accountCache, "ttl", Duration.ofMinutes(1));
+    ReflectionTestUtils.setField(accountCache, "meterRegistry", new SimpleMeterRegistry());
+    accountCache.init();
+    ReflectionTestUtils.setField(accountService, "accountCache", accountCache);
+    // Sin inicializar queda deshabilitado: el benchmark mide el alta, no el limitador
+    ReflectionTestUtils.setField(accountService, "admissionControl", new AdmissionControl());
+
+    request = new AccountRequest();
+    request.setCustomer("customer-1");
+    request.setAccountType(AccountType.SAVING);
+    request.setOpeningAmount(BigDecimal.ZERO);
+  }
+
+  @Benchmark
+  public Account create() {
+    return accountService.create(request).block();
+  }
+
+  @Benchmark
+  public Boolean serialBaseline() {
+    return webClientHelper
+        .findByIdCustomerService("customer-1")
+        .flatMap(
+            customer ->
+                accountRepository.existsByCustomerAndAccountType(
+                    customer.getId(), AccountType.SAVING))
+        .flatMap(exists -> webClientHelper.findByIdCreditService("customer-1").hasElements())
+        .block();
+  }
+}
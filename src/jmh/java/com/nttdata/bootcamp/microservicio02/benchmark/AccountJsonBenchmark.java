@@ -0,0 +1,103 @@
+package com.nttdata.bootcamp.microservicio02.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.model.AccountType;
+import com.nttdata.bootcamp.microservicio02.model.request.AccountRequest;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Serializacion y deserializacion JSON de {@code Account} y {@code AccountRequest} con un {@code
+ * ObjectMapper} configurado como el de Spring Boot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountJsonBenchmark {
+
+  private ObjectWriter accountWriter;
+
+  private ObjectReader accountReader;
+
+  private ObjectWriter requestWriter;
+
+  private ObjectReader requestReader;
+
+  private Account account;
+
+  private AccountRequest request;
+
+  private byte[] accountJson;
+
+  private byte[] requestJson;
+
+  @Setup
+  public void setup() throws IOException {
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    accountWriter = objectMapper.writerFor(Account.class);
+    accountReader = objectMapper.readerFor(Account.class);
+    requestWriter = objectMapper.writerFor(AccountRequest.class);
+    requestReader = objectMapper.readerFor(AccountRequest.class);
+
+    account = new Account();
+    account.setId("0d6f4c1e-5b7a-4f3e-9a2b-8c1d2e3f4a5b");
+    account.setAccountNumber("191000000000012");
+    account.setCustomer("customer-1");
+    account.setCustomerType("PERSONAL");
+    account.setAccountType(AccountType.SAVING);
+    account.setCurrency("Soles");
+    account.setAmountAvailable(new BigDecimal("1500.50"));
+    account.setActive(true);
+    account.setBalanceChangedAt(Instant.parse("2024-01-15T10:15:30Z"));
+    account.setHolders(List.of("customer-1"));
+
+    request = new AccountRequest();
+    request.setCustomer("customer-1");
+    request.setAccountType(AccountType.SAVING);
+    request.setOpeningAmount(new BigDecimal("1500.50"));
+    request.setHolders(List.of("customer-1"));
+
+    accountJson = accountWriter.writeValueAsBytes(account);
+    requestJson = requestWriter.writeValueAsBytes(request);
+  }
+
+  @Benchmark
+  public byte[] serializeAccount() throws IOException {
+    return accountWriter.writeValueAsBytes(account);
+  }
+
+  @Benchmark
+  public Account deserializeAccount() throws IOException {
+    return accountReader.readValue(accountJson);
+  }
+
+  @Benchmark
+  public byte[] serializeAccountRequest() throws IOException {
+    return requestWriter.writeValueAsBytes(request);
+  }
+
+  @Benchmark
+  public AccountRequest deserializeAccountRequest() throws IOException {
+    return requestReader.readValue(requestJson);
+  }
+}
@@ -0,0 +1,48 @@
+package com.nttdata.bootcamp.microservicio02.benchmark;
+
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.model.AccountType;
+import com.nttdata.bootcamp.microservicio02.model.request.AccountRequest;
+import com.nttdata.bootcamp.microservicio02.utils.mapper.AccountMapper;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Copia de {@code AccountRequest} a {@code Account} con {@code BeanUtils.copyProperties}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountMapperBenchmark {
+
+  private AccountRequest request;
+
+  @Setup
+  public void setup() {
+    request = new AccountRequest();
+    request.setCustomer("customer-1");
+    request.setAccountType(AccountType.SAVING);
+    request.setCurrency("Soles");
+    request.setTransactionLimit(10);
+    request.setCommissionRate(0.5d);
+    request.setOpeningAmount(new BigDecimal("1500.50"));
+    request.setHolders(List.of("customer-1"));
+  }
+
+  @Benchmark
+  public Account accountRequestToAccount() {
+    return AccountMapper.accountRequestToAccount(request);
+  }
+}
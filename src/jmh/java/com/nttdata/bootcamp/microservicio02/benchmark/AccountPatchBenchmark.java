@@ -0,0 +1,73 @@
+package com.nttdata.bootcamp.microservicio02.benchmark;
+
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.model.AccountType;
+import com.nttdata.bootcamp.microservicio02.utils.patch.FieldPatcher;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Coste por PATCH en la JVM: el bucle de reflexion que usaba {@code change} frente al {@link
+ * FieldPatcher} que construye el {@code $set}. Ejecutar con {@code -prof gc} para ver la tasa de
+ * asignacion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountPatchBenchmark {
+
+  private static final FieldPatcher<Account> PATCHER = FieldPatcher.of(Account.class, "id");
+
+  private Account patch;
+
+  private Account existing;
+
+  @Setup
+  public void setup() {
+    patch = new Account();
+    patch.setAmountAvailable(new BigDecimal("150.75"));
+    patch.setActive(true);
+    patch.setAccountType(AccountType.SAVING);
+
+    existing = new Account();
+    existing.setCustomer("customer-1");
+    existing.setAmountAvailable(BigDecimal.TEN);
+  }
+
+  @Benchmark
+  public Account reflectionLoop() throws IllegalAccessException {
+    Field[] fields = patch.getClass().getDeclaredFields();
+    for (Field field : fields) {
+      if ("id".equals(field.getName()) || Modifier.isStatic(field.getModifiers())) {
+        continue;
+      }
+      field.setAccessible(true);
+      Optional.ofNullable(field.get(patch))
+          .ifPresent(value -> ReflectionUtils.setField(field, existing, value));
+    }
+    return existing;
+  }
+
+  @Benchmark
+  public Update fieldPatcher() {
+    return PATCHER.toUpdate(patch);
+  }
+}
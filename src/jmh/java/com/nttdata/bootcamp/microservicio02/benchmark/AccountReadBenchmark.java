@@ -0,0 +1,69 @@
+package com.nttdata.bootcamp.microservicio02.benchmark;
+
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/**
+ * Materializacion de un {@code Account} desde Mongo. {@code readWithRandomUuid} suma el {@code
+ * UUID.randomUUID()} que antes ejecutaba el inicializador del id en cada lectura; ahora solo se
+ * genera al insertar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountReadBenchmark {
+
+  private MappingMongoConverter converter;
+
+  private Document document;
+
+  @Setup
+  public void setup() {
+    MongoMappingContext mappingContext = new MongoMappingContext();
+    converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    converter.afterPropertiesSet();
+
+    document =
+        new Document("_id", UUID.randomUUID().toString())
+            .append("accountNumber", "191000000000012")
+            .append("customer", "customer-1")
+            .append("customerType", "PERSONAL")
+            .append("accountType", "SAVING")
+            .append("currency", "Soles")
+            .append("amountAvailable", "1500.50")
+            .append("active", true)
+            .append("holders", List.of("customer-1"))
+            .append("authorizedSigners", List.of());
+  }
+
+  @Benchmark
+  public Account read() {
+    return converter.read(Account.class, document);
+  }
+
+  @Benchmark
+  public Account readWithRandomUuid() {
+    Account account = converter.read(Account.class, document);
+    account.setId(UUID.randomUUID().toString());
+    return account;
+  }
+}
@@ -0,0 +1,100 @@
+package com.nttdata.bootcamp.microservicio02.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.model.AccountType;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * JSON frente a Smile para listas de {@code Account}: CPU de serializar y deserializar. El tamano
+ * de cada payload se imprime al preparar el estado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountWireFormatBenchmark {
+
+  @Param({"json", "smile"})
+  private String format;
+
+  @Param({"10", "100", "1000"})
+  private int accounts;
+
+  private ObjectWriter writer;
+
+  private ObjectReader reader;
+
+  private List<Account> payload;
+
+  private byte[] encoded;
+
+  @Setup
+  public void setup() throws IOException {
+    Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+    if (format.equals("smile")) {
+      builder.factory(new SmileFactory());
+    }
+    ObjectMapper objectMapper = builder.build();
+    writer = objectMapper.writerFor(new TypeReference<List<Account>>() {});
+    reader = objectMapper.readerFor(new TypeReference<List<Account>>() {});
+
+    payload = new ArrayList<>(accounts);
+    for (int i = 0; i < accounts; i++) {
+      payload.add(account(i));
+    }
+    encoded = writer.writeValueAsBytes(payload);
+    System.out.printf("%n%s, %d accounts: %d bytes%n", format, accounts, encoded.length);
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException {
+    return writer.writeValueAsBytes(payload);
+  }
+
+  @Benchmark
+  public List<Account> decode() throws IOException {
+    return reader.readValue(encoded);
+  }
+
+  private static Account account(int i) {
+    Account account = new Account();
+    account.setId(String.format("0d6f4c1e-5b7a-4f3e-9a2b-%012d", i));
+    account.setVersion((long) i % 7);
+    account.setAccountNumber(String.format("191%012d", i));
+    account.setCustomer("customer-" + i / 3);
+    account.setCustomerType("PERSONAL");
+    account.setAccountType(AccountType.SAVING);
+    account.setCurrency("Soles");
+    account.setAmountAvailable(new BigDecimal("1500.50").add(BigDecimal.valueOf(i)));
+    account.setTransactionCount(i % 20);
+    account.setTransactionPeriod("2024-01");
+    account.setActive(true);
+    account.setBalanceChangedAt(Instant.parse("2024-01-15T10:15:30Z").plusSeconds(i));
+    account.setHolders(List.of("customer-" + i / 3));
+    return account;
+  }
+}
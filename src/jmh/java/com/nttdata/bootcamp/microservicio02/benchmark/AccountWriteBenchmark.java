@@ -0,0 +1,61 @@
+package com.nttdata.bootcamp.microservicio02.benchmark;
+
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.model.AccountType;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+/** Conversion de un {@code Account} a {@code Document}, el paso previo a cada insert o save. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountWriteBenchmark {
+
+  private MappingMongoConverter converter;
+
+  private Account account;
+
+  @Setup
+  public void setup() {
+    MongoMappingContext mappingContext = new MongoMappingContext();
+    converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+    converter.afterPropertiesSet();
+
+    account = new Account();
+    account.setId(UUID.randomUUID().toString());
+    account.setAccountNumber("191000000000012");
+    account.setCustomer("customer-1");
+    account.setCustomerType("PERSONAL");
+    account.setAccountType(AccountType.SAVING);
+    account.setCurrency("Soles");
+    account.setAmountAvailable(new BigDecimal("1500.50"));
+    account.setActive(true);
+    account.setHolders(List.of("customer-1"));
+  }
+
+  @Benchmark
+  public Document write() {
+    Document document = new Document();
+    converter.write(account, document);
+    return document;
+  }
+}
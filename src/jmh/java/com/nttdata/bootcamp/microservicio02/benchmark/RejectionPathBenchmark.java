@@ -0,0 +1,95 @@
+package com.nttdata.bootcamp.microservicio02.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.bootcamp.microservicio02.config.GlobalExceptionHandler;
+import com.nttdata.bootcamp.microservicio02.utils.constant.ErrorCode;
+import com.nttdata.bootcamp.microservicio02.utils.exception.OperationNoCompletedException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rechazo de negocio de punta a punta: error en el pipeline, {@code GlobalExceptionHandler} y
+ * cuerpo JSON. {@code legacyRejection} reproduce el camino anterior (excepcion con stack trace,
+ * {@code HashMap} y serializacion por peticion). La tasa de asignacion sale del profiler {@code
+ * gc} que activa el perfil {@code benchmark} ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectionPathBenchmark {
+
+  private ObjectMapper objectMapper;
+
+  private GlobalExceptionHandler exceptionHandler;
+
+  @Setup
+  public void setup() throws JsonProcessingException {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    exceptionHandler = new GlobalExceptionHandler();
+    ReflectionTestUtils.setField(exceptionHandler, "objectMapper", objectMapper);
+    exceptionHandler.init();
+  }
+
+  @Benchmark
+  public ResponseEntity<byte[]> rejection() {
+    return Mono.<ResponseEntity<byte[]>>error(
+            () -> OperationNoCompletedException.of(ErrorCode.ACCOUNT_TYPE_ALREADY))
+        .onErrorResume(
+            OperationNoCompletedException.class, exceptionHandler::handleCustomException)
+        .block();
+  }
+
+  @Benchmark
+  public ResponseEntity<byte[]> legacyRejection() {
+    ErrorCode errorCode = ErrorCode.ACCOUNT_TYPE_ALREADY;
+    return Mono.<ResponseEntity<byte[]>>error(
+            () -> new LegacyRejection(errorCode.getCode(), errorCode.getMessage()))
+        .onErrorResume(LegacyRejection.class, this::legacyHandle)
+        .block();
+  }
+
+  private Mono<ResponseEntity<byte[]>> legacyHandle(LegacyRejection ex) {
+    Map<String, String> errorResponse = new HashMap<>();
+    errorResponse.put("errorCode", ex.errorCode);
+    errorResponse.put("errorMessage", ex.errorMessage);
+    try {
+      return Mono.just(
+          ResponseEntity.status(HttpStatus.NOT_FOUND)
+              .body(objectMapper.writeValueAsBytes(errorResponse)));
+    } catch (JsonProcessingException e) {
+      return Mono.error(e);
+    }
+  }
+
+  /** Forma previa de la excepcion: una instancia nueva con stack trace por rechazo. */
+  private static final class LegacyRejection extends RuntimeException {
+
+    private final String errorCode;
+    private final String errorMessage;
+
+    private LegacyRejection(String errorCode, String errorMessage) {
+      this.errorCode = errorCode;
+      this.errorMessage = errorMessage;
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package com.nttdata.bootcamp.microservicio02.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/** Latencias (en microsegundos) y errores de un endpoint durante la prueba. */
+public class EndpointStats {
+
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+  private final String name;
+
+  private final Histogram latencies = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+  private final LongAdder errors = new LongAdder();
+
+  public EndpointStats(String name) {
+    this.name = name;
+  }
+
+  public void record(long latencyNanos, boolean failed) {
+    latencies.recordValue(
+        Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+    if (failed) {
+      errors.increment();
+    }
+  }
+
+  public static String header() {
+    return String.format(
+        "%-10s %9s %7s %10s %10s %10s %10s %10s",
+        "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+  }
+
+  public String report(Duration elapsed) {
+    long count = latencies.getTotalCount();
+    return String.format(
+        "%-10s %9d %7d %10.1f %10.2f %10.2f %10.2f %10.2f",
+        name,
+        count,
+        errors.sum(),
+        count / (elapsed.toNanos() / 1e9),
+        millis(latencies.getValueAtPercentile(50)),
+        millis(latencies.getValueAtPercentile(99)),
+        millis(latencies.getValueAtPercentile(99.9)),
+        millis(latencies.getMaxValue()));
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000.0;
+  }
+}
@@ -0,0 +1,239 @@
+package com.nttdata.bootcamp.microservicio02.loadtest;
+
+import com.nttdata.bootcamp.microservicio02.Microservicio02Application;
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.model.AccountType;
+import com.nttdata.bootcamp.microservicio02.model.request.AccountRequest;
+import com.nttdata.bootcamp.microservicio02.model.request.BalanceRequest;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.testcontainers.containers.MongoDBContainer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Prueba de carga en proceso: levanta los servicios simulados, un Mongo (local o en contenedor)
+ * y la aplicacion, y lanza peticiones a {@code AccountController} a una tasa fija (lazo abierto).
+ * La latencia se mide desde el instante en que la peticion debia salir, para no ocultar las
+ * colas cuando el servicio se satura.
+ *
+ * <p>Configuracion por propiedades de sistema {@code loadtest.*}; ver README.
+ */
+@Slf4j
+public final class LoadTest {
+
+  private static final int KNOWN_ACCOUNTS = 10_000;
+
+  private final WebClient webClient;
+
+  private final Map<String, Integer> mix;
+
+  private final int totalWeight;
+
+  private final AtomicReferenceArray<String> accountIds =
+      new AtomicReferenceArray<>(KNOWN_ACCOUNTS);
+
+  private final AtomicLong createdAccounts = new AtomicLong();
+
+  private LoadTest(WebClient webClient, Map<String, Integer> mix) {
+    this.webClient = webClient;
+    this.mix = mix;
+    this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+  }
+
+  public static void main(String[] args) {
+    int rate = Integer.getInteger("loadtest.rate", 200);
+    int maxInFlight = Integer.getInteger("loadtest.max-in-flight", 1024);
+    Duration warmup = duration("loadtest.warmup", "10s");
+    Duration duration = duration("loadtest.duration", "60s");
+    Map<String, Integer> mix =
+        parseMix(
+            System.getProperty("loadtest.mix", "create:30,findById:30,credit:20,debit:10,page:10"));
+
+    String mongoUri = System.getProperty("loadtest.mongo.uri");
+    MongoDBContainer mongo = null;
+    if (mongoUri == null) {
+      mongo = new MongoDBContainer(System.getProperty("loadtest.mongo.image", "mongo:7.0"));
+      mongo.start();
+      mongoUri = mongo.getReplicaSetUrl("loadtest");
+    }
+    try (StubServices stubs =
+            new StubServices(
+                StubServices.Behavior.fromSystemProperties("customer"),
+                StubServices.Behavior.fromSystemProperties("credit"),
+                StubServices.Behavior.fromSystemProperties("transaction"));
+        ConfigurableApplicationContext application =
+            new SpringApplicationBuilder(Microservicio02Application.class)
+                .run(
+                    "--server.port=0",
+                    "--spring.data.mongodb.uri=" + mongoUri,
+                    "--application.endpoints.url.customer=" + stubs.customerUrl(),
+                    "--application.endpoints.url.credit=" + stubs.creditUrl(),
+                    "--application.endpoints.url.transaction=" + stubs.transactionUrl(),
+                    "--spring.cloud.config.enabled=false",
+                    "--spring.cloud.config.import-check.enabled=false",
+                    "--eureka.client.enabled=false",
+                    "--spring.devtools.restart.enabled=false")) {
+      int port =
+          application.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+      ConnectionProvider connectionProvider =
+          ConnectionProvider.builder("loadtest")
+              .maxConnections(maxInFlight)
+              .pendingAcquireMaxCount(-1)
+              .build();
+      WebClient webClient =
+          WebClient.builder()
+              .baseUrl("http://localhost:" + port + "/api/v1/accounts")
+              .clientConnector(
+                  new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+              .build();
+      LoadTest loadTest = new LoadTest(webClient, mix);
+
+      log.info("Warming up for {} at {} req/s", warmup, rate);
+      loadTest.run(rate, maxInFlight, warmup, null);
+      log.info("Measuring for {} at {} req/s, mix {}", duration, rate, mix);
+      Map<String, EndpointStats> stats = new ConcurrentSkipListMap<>();
+      mix.keySet().forEach(endpoint -> stats.put(endpoint, new EndpointStats(endpoint)));
+      long dropped = loadTest.run(rate, maxInFlight, duration, stats);
+
+      StringBuilder report =
+          new StringBuilder("Load test results\n").append(EndpointStats.header());
+      stats.values().forEach(endpoint -> report.append('\n').append(endpoint.report(duration)));
+      report.append("\nDropped (max in flight reached): ").append(dropped);
+      log.info(report.toString());
+      connectionProvider.dispose();
+    } finally {
+      if (mongo != null) {
+        mongo.stop();
+      }
+    }
+  }
+
+  // Devuelve cuantas peticiones no llegaron a salir por superar el maximo en vuelo
+  private long run(
+      int rate, int maxInFlight, Duration duration, Map<String, EndpointStats> stats) {
+    long periodNanos = 1_000_000_000L / rate;
+    long ticks = duration.toNanos() / periodNanos;
+    LongAdder dropped = new LongAdder();
+    long start = System.nanoTime();
+    Flux.interval(Duration.ofNanos(periodNanos))
+        .take(ticks)
+        .onBackpressureDrop(tick -> dropped.increment())
+        .flatMap(
+            tick -> {
+              long intendedStart = start + (tick + 1) * periodNanos;
+              String accountId = knownAccount();
+              // Hasta tener cuentas creadas todas las peticiones son altas
+              String endpoint = accountId == null ? "create" : nextEndpoint();
+              return execute(endpoint, accountId)
+                  .doOnNext(
+                      success -> {
+                        if (stats != null) {
+                          stats
+                              .computeIfAbsent(endpoint, EndpointStats::new)
+                              .record(System.nanoTime() - intendedStart, !success);
+                        }
+                      });
+            },
+            maxInFlight)
+        .blockLast();
+    return dropped.sum();
+  }
+
+  private String nextEndpoint() {
+    int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+    for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+      pick -= entry.getValue();
+      if (pick < 0) {
+        return entry.getKey();
+      }
+    }
+    throw new IllegalStateException("Empty load test mix");
+  }
+
+  private Mono<Boolean> execute(String endpoint, String accountId) {
+    Mono<Boolean> result =
+        switch (endpoint) {
+          case "create" -> create();
+          case "findById" -> webClient.get().uri("/{id}", accountId).exchangeToMono(this::success);
+          case "credit" -> movement(accountId, "credit");
+          case "debit" -> movement(accountId, "debit");
+          case "page" ->
+              webClient
+                  .get()
+                  .uri(uriBuilder -> uriBuilder.path("/page").queryParam("size", 20).build())
+                  .exchangeToMono(this::success);
+          default -> Mono.error(new IllegalArgumentException("Unknown endpoint " + endpoint));
+        };
+    return result.onErrorReturn(false);
+  }
+
+  private Mono<Boolean> create() {
+    AccountRequest request = new AccountRequest();
+    request.setCustomer(UUID.randomUUID().toString());
+    request.setAccountType(AccountType.SAVING);
+    request.setOpeningAmount(BigDecimal.valueOf(100));
+    return webClient
+        .post()
+        .bodyValue(request)
+        .exchangeToMono(
+            response ->
+                response.statusCode().is2xxSuccessful()
+                    ? response
+                        .bodyToMono(Account.class)
+                        .doOnNext(this::remember)
+                        .thenReturn(true)
+                    : response.releaseBody().thenReturn(false));
+  }
+
+  private Mono<Boolean> movement(String accountId, String operation) {
+    return webClient
+        .post()
+        .uri("/{id}/" + operation, accountId)
+        .bodyValue(new BalanceRequest(BigDecimal.ONE))
+        .exchangeToMono(this::success);
+  }
+
+  private Mono<Boolean> success(ClientResponse response) {
+    return response.releaseBody().thenReturn(response.statusCode().is2xxSuccessful());
+  }
+
+  private void remember(Account account) {
+    accountIds.set((int) (createdAccounts.getAndIncrement() % KNOWN_ACCOUNTS), account.getId());
+  }
+
+  private String knownAccount() {
+    long known = Math.min(createdAccounts.get(), KNOWN_ACCOUNTS);
+    return known == 0 ? null : accountIds.get(ThreadLocalRandom.current().nextInt((int) known));
+  }
+
+  private static Duration duration(String property, String defaultValue) {
+    return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+  }
+
+  private static Map<String, Integer> parseMix(String mix) {
+    Map<String, Integer> weights = new LinkedHashMap<>();
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.trim().split(":");
+      weights.put(parts[0], Integer.parseInt(parts[1]));
+    }
+    return weights;
+  }
+}
@@ -0,0 +1,170 @@
+package com.nttdata.bootcamp.microservicio02.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.NettyOutbound;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * Servicios de cliente, credito y transaccion simulados en proceso, con los contratos que usa
+ * {@code WebClientHelper}. Cada uno responde con una latencia base mas un jitter aleatorio y
+ * devuelve 503 con la probabilidad configurada.
+ */
+@Slf4j
+public class StubServices implements AutoCloseable {
+
+  private final DisposableServer customer;
+
+  private final DisposableServer credit;
+
+  private final DisposableServer transaction;
+
+  public StubServices(Behavior customer, Behavior credit, Behavior transaction) {
+    this.customer =
+        HttpServer.create()
+            .port(0)
+            .route(
+                routes ->
+                    routes.get(
+                        "/v1/customers/{id}",
+                        (request, response) ->
+                            respond(customer, response, customerJson(request.param("id")))))
+            .bindNow();
+    this.credit =
+        HttpServer.create()
+            .port(0)
+            .route(
+                routes ->
+                    routes
+                        .get(
+                            "/v1/credits/customer/{id}",
+                            (request, response) ->
+                                respond(credit, response, creditsJson(request.param("id"))))
+                        .post(
+                            "/v1/credits/eligibility/card-bank",
+                            (request, response) ->
+                                respond(
+                                    credit,
+                                    response,
+                                    request
+                                        .receive()
+                                        .aggregate()
+                                        .asString()
+                                        .map(StubServices::cardBankEligibilityJson))))
+            .bindNow();
+    this.transaction =
+        HttpServer.create()
+            .port(0)
+            .route(
+                routes ->
+                    routes.post(
+                        "/v1/transactions",
+                        (request, response) ->
+                            respond(
+                                transaction,
+                                response,
+                                request.receive().aggregate().asString().defaultIfEmpty("{}"))))
+            .bindNow();
+    log.info(
+        "Stub services listening: customer={}, credit={}, transaction={}",
+        this.customer.port(),
+        this.credit.port(),
+        this.transaction.port());
+  }
+
+  public String customerUrl() {
+    return baseUrl(customer);
+  }
+
+  public String creditUrl() {
+    return baseUrl(credit);
+  }
+
+  public String transactionUrl() {
+    return baseUrl(transaction);
+  }
+
+  @Override
+  public void close() {
+    customer.disposeNow();
+    credit.disposeNow();
+    transaction.disposeNow();
+  }
+
+  private static String baseUrl(DisposableServer server) {
+    return "http://localhost:" + server.port() + "/";
+  }
+
+  private static NettyOutbound respond(
+      Behavior behavior, HttpServerResponse response, String body) {
+    return respond(behavior, response, Mono.just(body));
+  }
+
+  private static NettyOutbound respond(
+      Behavior behavior, HttpServerResponse response, Mono<String> body) {
+    if (ThreadLocalRandom.current().nextDouble() < behavior.errorRate()) {
+      return response
+          .status(503)
+          .sendString(Mono.<String>empty().delaySubscription(behavior.delay()));
+    }
+    return response
+        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+        .sendString(body.delayElement(behavior.delay()));
+  }
+
+  private static String customerJson(String id) {
+    return "{\"id\":\""
+        + id
+        + "\",\"customerType\":\"PERSONAL\",\"customerSubType\":\"VIP\",\"isActive\":true}";
+  }
+
+  private static String creditsJson(String id) {
+    return "[{\"id\":\"credit-"
+        + id
+        + "\",\"customerId\":\""
+        + id
+        + "\",\"creditType\":\"CARD_BANK\",\"active\":true}]";
+  }
+
+  // Todos los clientes simulados tienen una CARD_BANK activa, igual que en creditsJson
+  private static String cardBankEligibilityJson(String customerIdsJson) {
+    String ids = customerIdsJson.trim();
+    ids = ids.substring(1, ids.length() - 1).trim();
+    if (ids.isEmpty()) {
+      return "{}";
+    }
+    return "{"
+        + Arrays.stream(ids.split(","))
+            .map(id -> id.trim() + ":true")
+            .collect(Collectors.joining(","))
+        + "}";
+  }
+
+  /** Latencia base, jitter uniforme y tasa de errores 5xx de un servicio simulado. */
+  public record Behavior(Duration latency, Duration jitter, double errorRate) {
+
+    public static Behavior fromSystemProperties(String service) {
+      String prefix = "loadtest." + service + ".";
+      return new Behavior(
+          DurationStyle.detectAndParse(System.getProperty(prefix + "latency", "20ms")),
+          DurationStyle.detectAndParse(System.getProperty(prefix + "jitter", "10ms")),
+          Double.parseDouble(System.getProperty(prefix + "error-rate", "0.0")));
+    }
+
+    Duration delay() {
+      long jitterNanos = jitter.toNanos();
+      return jitterNanos <= 0
+          ? latency
+          : latency.plusNanos(ThreadLocalRandom.current().nextLong(jitterNanos + 1));
+    }
+  }
+}
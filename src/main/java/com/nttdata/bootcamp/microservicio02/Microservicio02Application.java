@@ -1,13 +1,18 @@
 package com.nttdata.bootcamp.microservicio02;
 
+import com.nttdata.bootcamp.microservicio02.config.NativeRuntimeHints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @EnableReactiveMongoRepositories
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class Microservicio02Application {
 
   private static final Logger log = LoggerFactory.getLogger(Microservicio02Application.class);
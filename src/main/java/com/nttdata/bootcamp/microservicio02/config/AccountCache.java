@@ -0,0 +1,255 @@
+package com.nttdata.bootcamp.microservicio02.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.MongoServerException;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions.ChangeStreamOptionsBuilder;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Cache de lectura de cuentas por id y por cliente. Cada nodo escucha el change stream de la
+ * coleccion {@code account} e invalida solo las entradas afectadas, asi varias instancias siguen
+ * consistentes sin infraestructura adicional. Mientras el change stream no esta activo (por
+ * ejemplo, un Mongo standalone) las lecturas van directo a la base.
+ */
+@Slf4j
+@Component
+public class AccountCache {
+
+  public static final String BY_ID_CACHE_NAME = "account";
+  public static final String BY_CUSTOMER_CACHE_NAME = "account_customer";
+
+  // "The $changeStream stage is only supported on replica sets"
+  private static final int CHANGE_STREAM_NOT_SUPPORTED = 40573;
+
+  // El resume token ya no esta en el oplog: hay que abrir el stream desde ahora
+  private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+  @Value("${application.cache.account.enabled}")
+  private boolean enabled;
+
+  @Value("${application.cache.account.maximum-size}")
+  private long maximumSize;
+
+  @Value("${application.cache.account.ttl}")
+  private Duration ttl;
+
+  @Value("${application.cache.account.min-backoff}")
+  private Duration minBackoff;
+
+  @Value("${application.cache.account.max-backoff}")
+  private Duration maxBackoff;
+
+  @Autowired private ReactiveMongoTemplate reactiveMongoTemplate;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  private AsyncCache<String, Optional<Account>> byId;
+
+  private AsyncCache<String, List<Account>> byCustomer;
+
+  // Solo se sirve desde cache mientras el change stream esta suscrito
+  private volatile boolean listening;
+
+  private Disposable changeStream;
+
+  // Ultimo evento procesado: un reintento reanuda desde aqui sin perder escrituras
+  private volatile BsonValue resumeToken;
+
+  @PostConstruct
+  public void init() {
+    // El TTL acota cualquier evento perdido entre la apertura del stream y la primera lectura
+    byId = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).buildAsync();
+    byCustomer = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).buildAsync();
+    CaffeineCacheMetrics.monitor(meterRegistry, byId.synchronous(), BY_ID_CACHE_NAME);
+    CaffeineCacheMetrics.monitor(meterRegistry, byCustomer.synchronous(), BY_CUSTOMER_CACHE_NAME);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void startListening() {
+    if (!enabled) {
+      log.warn("Account cache is disabled");
+      return;
+    }
+    changeStream =
+        Flux.defer(this::changes)
+            .doOnError(this::stopServing)
+            .retryWhen(
+                Retry.backoff(Long.MAX_VALUE, minBackoff)
+                    .maxBackoff(maxBackoff)
+                    .filter(error -> !isChangeStreamNotSupported(error)))
+            .subscribe(
+                this::onChange,
+                error ->
+                    log.warn(
+                        "Account change stream not available, account cache bypassed: {}",
+                        error.getMessage()));
+  }
+
+  @PreDestroy
+  public void stopListening() {
+    if (changeStream != null) {
+      changeStream.dispose();
+    }
+  }
+
+  public Mono<Account> findById(String id, Function<String, Mono<Account>> loader) {
+    if (!listening) {
+      return loader.apply(id);
+    }
+    return Mono.fromFuture(
+            () ->
+                byId.get(
+                    id,
+                    (key, executor) ->
+                        loader
+                            .apply(key)
+                            .map(Optional::of)
+                            .defaultIfEmpty(Optional.empty())
+                            .toFuture()),
+            true)
+        .flatMap(account -> account.map(Mono::just).orElseGet(Mono::empty));
+  }
+
+  public Flux<Account> findByCustomer(String customer, Function<String, Flux<Account>> loader) {
+    if (!listening) {
+      return loader.apply(customer);
+    }
+    return Mono.fromFuture(
+            () ->
+                byCustomer.get(
+                    customer, (key, executor) -> loader.apply(key).collectList().toFuture()),
+            true)
+        .flatMapIterable(Function.identity());
+  }
+
+  // Escrituras de este nodo: no esperan al evento del change stream
+  public void evict(Account account) {
+    if (account == null) {
+      return;
+    }
+    if (account.getId() != null) {
+      byId.synchronous().invalidate(account.getId());
+    }
+    if (account.getCustomer() != null) {
+      byCustomer.synchronous().invalidate(account.getCustomer());
+    }
+  }
+
+  private Flux<ChangeStreamEvent<Account>> changes() {
+    return startPosition()
+        .flatMapMany(
+            position -> {
+              // Toda escritura posterior a la posicion se entrega aunque el cursor abra despues,
+              // asi que ya se puede servir desde cache
+              listening = true;
+              return reactiveMongoTemplate
+                  .changeStream(Account.class)
+                  .withOptions(
+                      options ->
+                          position.accept(options.fullDocumentLookup(FullDocument.UPDATE_LOOKUP)))
+                  .watchCollection(Account.class)
+                  .listen();
+            })
+        // Un cursor cerrado (por ejemplo, tras un evento invalidate) se reabre como un error
+        .concatWith(Mono.error(() -> new IllegalStateException("Account change stream closed")));
+  }
+
+  // Reanuda tras el ultimo evento procesado o, sin token, desde el operationTime actual, fijado
+  // antes de volver a servir desde cache
+  private Mono<Consumer<ChangeStreamOptionsBuilder>> startPosition() {
+    BsonValue token = resumeToken;
+    if (token != null) {
+      log.info("Resuming account change stream");
+      return Mono.just(options -> options.resumeAfter(token));
+    }
+    return reactiveMongoTemplate
+        .executeCommand(new Document("hello", 1))
+        .map(
+            reply -> {
+              BsonTimestamp operationTime = reply.get("operationTime", BsonTimestamp.class);
+              log.info("Listening to account change stream from {}", operationTime);
+              return operationTime == null
+                  ? options -> {}
+                  : options -> options.resumeAt(operationTime);
+            });
+  }
+
+  private void onChange(ChangeStreamEvent<Account> event) {
+    BsonDocument documentKey = event.getRaw() == null ? null : event.getRaw().getDocumentKey();
+    BsonValue id = documentKey == null ? null : documentKey.get("_id");
+    if (id == null || !id.isString() || event.getOperationType() == OperationType.INVALIDATE) {
+      invalidateAll();
+      // Tras un invalidate no se puede reanudar con resumeAfter: se vuelve a abrir desde ahora
+      resumeToken =
+          event.getOperationType() == OperationType.INVALIDATE ? null : event.getResumeToken();
+      return;
+    }
+    String accountId = id.asString().getValue();
+    // La lista anterior del cliente se conoce por la cuenta cacheada; la nueva por el documento
+    Optional<Account> cached = byId.synchronous().getIfPresent(accountId);
+    byId.synchronous().invalidate(accountId);
+    if (cached != null && cached.isPresent()) {
+      evict(cached.get());
+    } else if (event.getBody() == null) {
+      // Borrado de una cuenta no cacheada: no se sabe a que cliente pertenecia
+      byCustomer.synchronous().invalidateAll();
+    }
+    evict(event.getBody());
+    resumeToken = event.getResumeToken();
+  }
+
+  private void stopServing(Throwable error) {
+    log.warn("Account change stream interrupted: {}", error.getMessage());
+    listening = false;
+    invalidateAll();
+    if (hasErrorCode(error, CHANGE_STREAM_HISTORY_LOST)) {
+      resumeToken = null;
+    }
+  }
+
+  private void invalidateAll() {
+    byId.synchronous().invalidateAll();
+    byCustomer.synchronous().invalidateAll();
+  }
+
+  private static boolean isChangeStreamNotSupported(Throwable error) {
+    return hasErrorCode(error, CHANGE_STREAM_NOT_SUPPORTED);
+  }
+
+  private static boolean hasErrorCode(Throwable error, int code) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof MongoServerException exception && exception.getCode() == code) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,149 @@
+package com.nttdata.bootcamp.microservicio02.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nttdata.bootcamp.microservicio02.utils.constant.ErrorCode;
+import com.nttdata.bootcamp.microservicio02.utils.exception.OperationNoCompletedException;
+import com.nttdata.bootcamp.microservicio02.utils.reactive.AimdLimiter;
+import com.nttdata.bootcamp.microservicio02.utils.reactive.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Control de admision de las altas de cuentas: un limite de concurrencia adaptativo (AIMD segun la
+ * latencia observada) y, opcionalmente, un token bucket por cliente. Lo que no entra se rechaza de
+ * inmediato con 503 en lugar de encolarse detras de dependencias degradadas.
+ */
+@Slf4j
+@Component
+public class AdmissionControl {
+
+  // Clave del cliente en el Context de Reactor, la escribe ClientKeyWebFilter
+  public static final String CLIENT_KEY = AdmissionControl.class.getName() + ".client";
+
+  public static final String ANONYMOUS_CLIENT = "anonymous";
+
+  private static final String LIMIT_GAUGE = "account.admission.limit";
+  private static final String IN_FLIGHT_GAUGE = "account.admission.in_flight";
+  private static final String REJECTION_COUNTER = "account.admission.rejected";
+
+  @Value("${application.admission.enabled}")
+  private boolean enabled;
+
+  @Value("${application.admission.initial-limit}")
+  private int initialLimit;
+
+  @Value("${application.admission.min-limit}")
+  private int minLimit;
+
+  @Value("${application.admission.max-limit}")
+  private int maxLimit;
+
+  @Value("${application.admission.target-latency}")
+  private Duration targetLatency;
+
+  @Value("${application.admission.backoff-ratio}")
+  private double backoffRatio;
+
+  @Value("${application.admission.client-rate.enabled}")
+  private boolean clientRateEnabled;
+
+  @Value("${application.admission.client-rate.permits-per-second}")
+  private double clientPermitsPerSecond;
+
+  @Value("${application.admission.client-rate.burst}")
+  private double clientBurst;
+
+  @Value("${application.admission.client-rate.max-clients}")
+  private long maxClients;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  private AimdLimiter limiter;
+
+  private Cache<String, TokenBucket> clientBuckets;
+
+  private Counter clientRateRejections;
+
+  private Counter limitRejections;
+
+  @PostConstruct
+  public void init() {
+    limiter = new AimdLimiter(initialLimit, minLimit, maxLimit, targetLatency, backoffRatio);
+    // Un bucket sin uso durante un minuto ya estaria lleno: se puede descartar
+    clientBuckets =
+        Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            .expireAfterAccess(Duration.ofMinutes(1))
+            .build();
+    Gauge.builder(LIMIT_GAUGE, limiter, AimdLimiter::getLimit)
+        .description("Current adaptive concurrency limit for account creation")
+        .register(meterRegistry);
+    Gauge.builder(IN_FLIGHT_GAUGE, limiter, AimdLimiter::getInFlight)
+        .description("Account creations currently admitted")
+        .register(meterRegistry);
+    clientRateRejections = rejectionCounter("client_rate");
+    limitRejections = rejectionCounter("limit");
+    log.info(
+        "Admission control: enabled={}, limit={} [{}..{}], targetLatency={}, clientRate={}",
+        enabled,
+        initialLimit,
+        minLimit,
+        maxLimit,
+        targetLatency,
+        clientRateEnabled ? clientPermitsPerSecond + "/s" : "off");
+  }
+
+  public <T> Mono<T> admit(Mono<T> work) {
+    if (!enabled) {
+      return work;
+    }
+    return Mono.deferContextual(
+        context -> {
+          if (clientRateEnabled
+              && !clientBucket(context.getOrDefault(CLIENT_KEY, ANONYMOUS_CLIENT)).tryConsume()) {
+            return reject(clientRateRejections);
+          }
+          if (!limiter.tryAcquire()) {
+            return reject(limitRejections);
+          }
+          long start = System.nanoTime();
+          return work
+              .doOnSuccess(value -> limiter.onSuccess(System.nanoTime() - start))
+              .doOnError(
+                  error -> {
+                    // Un rechazo de negocio es una respuesta normal, no congestion
+                    if (error instanceof OperationNoCompletedException) {
+                      limiter.onSuccess(System.nanoTime() - start);
+                    } else {
+                      limiter.onDropped();
+                    }
+                  })
+              .doOnCancel(limiter::onIgnore);
+        });
+  }
+
+  private TokenBucket clientBucket(String client) {
+    return clientBuckets.get(client, key -> new TokenBucket(clientPermitsPerSecond, clientBurst));
+  }
+
+  private Counter rejectionCounter(String reason) {
+    return Counter.builder(REJECTION_COUNTER)
+        .description("Account creations shed by admission control")
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+
+  private <T> Mono<T> reject(Counter rejections) {
+    rejections.increment();
+    return Mono.error(OperationNoCompletedException.of(ErrorCode.SERVICE_UNAVAILABLE));
+  }
+}
@@ -0,0 +1,38 @@
+package com.nttdata.bootcamp.microservicio02.config;
+
+import java.net.InetSocketAddress;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Identifica al cliente que llama (cabecera {@code X-Client-Id} o, si falta, su IP) y lo deja en
+ * el Context de Reactor para el reparto por cliente de {@link AdmissionControl}.
+ */
+@Component
+public class ClientKeyWebFilter implements WebFilter {
+
+  public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    return chain
+        .filter(exchange)
+        .contextWrite(Context.of(AdmissionControl.CLIENT_KEY, clientKey(exchange.getRequest())));
+  }
+
+  private static String clientKey(ServerHttpRequest request) {
+    String clientId = request.getHeaders().getFirst(CLIENT_ID_HEADER);
+    if (clientId != null && !clientId.isBlank()) {
+      return clientId;
+    }
+    InetSocketAddress remoteAddress = request.getRemoteAddress();
+    return remoteAddress == null
+        ? AdmissionControl.ANONYMOUS_CLIENT
+        : remoteAddress.getHostString();
+  }
+}
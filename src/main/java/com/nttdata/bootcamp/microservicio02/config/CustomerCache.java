@@ -0,0 +1,95 @@
+package com.nttdata.bootcamp.microservicio02.config;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nttdata.bootcamp.microservicio02.model.Customer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+@Component
+public class CustomerCache {
+
+  public static final String CACHE_NAME = "customer";
+
+  @Value("${application.cache.customer.maximum-size}")
+  private long maximumSize;
+
+  @Value("${application.cache.customer.ttl}")
+  private Duration ttl;
+
+  @Value("${application.cache.customer.negative-ttl}")
+  private Duration negativeTtl;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  // Optional.empty() guarda los "not found" con un TTL mas corto
+  private AsyncCache<String, Optional<Customer>> cache;
+
+  @PostConstruct
+  public void init() {
+    cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new CustomerExpiry())
+            .recordStats()
+            .buildAsync();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+    log.info(
+        "Customer cache initialized: maximumSize={}, ttl={}, negativeTtl={}",
+        maximumSize,
+        ttl,
+        negativeTtl);
+  }
+
+  public Mono<Customer> get(String id, Function<String, Mono<Customer>> loader) {
+    // Las llamadas concurrentes para el mismo id comparten el mismo future en vuelo,
+    // por eso no se propaga la cancelacion de un suscriptor al resto.
+    return Mono.fromFuture(
+            () ->
+                cache.get(
+                    id,
+                    (key, executor) ->
+                        loader
+                            .apply(key)
+                            .map(Optional::of)
+                            .defaultIfEmpty(Optional.empty())
+                            .toFuture()),
+            true)
+        .flatMap(customer -> customer.map(Mono::just).orElseGet(Mono::empty));
+  }
+
+  public void invalidate(String id) {
+    cache.synchronous().invalidate(id);
+  }
+
+  private final class CustomerExpiry implements Expiry<String, Optional<Customer>> {
+
+    @Override
+    public long expireAfterCreate(String key, Optional<Customer> value, long currentTime) {
+      return (value.isPresent() ? ttl : negativeTtl).toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String key, Optional<Customer> value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String key, Optional<Customer> value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
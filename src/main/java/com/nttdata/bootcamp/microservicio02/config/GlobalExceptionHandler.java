@@ -1,10 +1,16 @@
 package com.nttdata.bootcamp.microservicio02.config;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nttdata.bootcamp.microservicio02.utils.constant.ErrorCode;
 import com.nttdata.bootcamp.microservicio02.utils.exception.OperationNoCompletedException;
-import java.util.HashMap;
+import jakarta.annotation.PostConstruct;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -13,20 +19,39 @@ import reactor.core.publisher.Mono;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+  @Autowired private ObjectMapper objectMapper;
+
+  // Respuesta ya serializada por codigo: el cuerpo se escribe envolviendo el mismo byte[]
+  private final Map<ErrorCode, Mono<ResponseEntity<byte[]>>> responses =
+      new EnumMap<>(ErrorCode.class);
+
+  @PostConstruct
+  public void init() throws JsonProcessingException {
+    for (ErrorCode errorCode : ErrorCode.values()) {
+      Map<String, String> errorResponse = new LinkedHashMap<>();
+      errorResponse.put("errorCode", errorCode.getCode());
+      errorResponse.put("errorMessage", errorCode.getMessage());
+      responses.put(
+          errorCode,
+          Mono.just(
+              ResponseEntity.status(status(errorCode))
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .body(objectMapper.writeValueAsBytes(errorResponse))));
+    }
+  }
+
   @ExceptionHandler(OperationNoCompletedException.class)
-  public Mono<ResponseEntity<Map<String, String>>> handleCustomException(
-      OperationNoCompletedException ex) {
-    Map<String, String> errorResponse = new HashMap<>();
-    errorResponse.put("errorCode", ex.getErrorCode());
-    errorResponse.put("errorMessage", ex.getErrorMessage());
-    return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse));
+  public Mono<ResponseEntity<byte[]>> handleCustomException(OperationNoCompletedException ex) {
+    return responses.get(ex.getError());
   }
 
   @ExceptionHandler(Exception.class)
-  public Mono<ResponseEntity<Map<String, String>>> handleGenericException(Exception ex) {
-    Map<String, String> errorResponse = new HashMap<>();
-    errorResponse.put("errorCode", ErrorCode.INTERNAL_SERVER_ERROR.getCode());
-    errorResponse.put("errorMessage", ErrorCode.INTERNAL_SERVER_ERROR.getMessage());
-    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse));
+  public Mono<ResponseEntity<byte[]>> handleGenericException(Exception ex) {
+    return responses.get(ErrorCode.INTERNAL_SERVER_ERROR);
+  }
+
+  private static HttpStatus status(ErrorCode errorCode) {
+    HttpStatus status = HttpStatus.resolve(Integer.parseInt(errorCode.getCode()));
+    return status == null ? HttpStatus.INTERNAL_SERVER_ERROR : status;
   }
 }
@@ -0,0 +1,35 @@
+package com.nttdata.bootcamp.microservicio02.config;
+
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.model.Credit;
+import com.nttdata.bootcamp.microservicio02.model.Customer;
+import com.nttdata.bootcamp.microservicio02.model.Transaction;
+import com.nttdata.bootcamp.microservicio02.model.request.AccountRequest;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflexion que el analisis AOT no puede deducir solo, necesaria en la imagen nativa ({@code mvn
+ * -Pnative native:compile}).
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+  private final BindingReflectionHintsRegistrar bindingHints =
+      new BindingReflectionHintsRegistrar();
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    // FieldPatcher (PATCH) y FieldSelection (fields=) recorren los campos declarados de Account;
+    // AccountMapper copia con BeanUtils.copyProperties, que usa getters y setters
+    hints
+        .reflection()
+        .registerType(
+            Account.class, MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_PUBLIC_METHODS)
+        .registerType(AccountRequest.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    // Cuerpos de los WebClient: no aparecen en las firmas de los controladores
+    bindingHints.registerReflectionHints(
+        hints.reflection(), Customer.class, Credit.class, Transaction.class);
+  }
+}
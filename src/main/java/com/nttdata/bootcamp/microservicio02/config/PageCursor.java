@@ -0,0 +1,64 @@
+package com.nttdata.bootcamp.microservicio02.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cursor opaco de la paginacion por id: {@code base64url(ultimoId).base64url(firma)}. La firma
+ * HMAC hace que un cursor alterado o inventado se rechace en lugar de saltar a otro punto.
+ */
+@Component
+public class PageCursor {
+
+  private static final String ALGORITHM = "HmacSHA256";
+
+  // Basta una firma truncada: solo tiene que detectar alteraciones, no cifrar nada
+  private static final int SIGNATURE_BYTES = 16;
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  @Value("${application.pagination.cursor-key}")
+  private String key;
+
+  public String encode(String lastId) {
+    byte[] id = lastId.getBytes(StandardCharsets.UTF_8);
+    return ENCODER.encodeToString(id) + "." + ENCODER.encodeToString(sign(id));
+  }
+
+  // null sin cursor; IllegalArgumentException si esta mal formado o la firma no coincide
+  public String decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    int separator = cursor.indexOf('.');
+    if (separator < 1 || separator != cursor.lastIndexOf('.')) {
+      throw new IllegalArgumentException("Malformed cursor");
+    }
+    byte[] id = DECODER.decode(cursor.substring(0, separator));
+    byte[] signature = DECODER.decode(cursor.substring(separator + 1));
+    if (!MessageDigest.isEqual(sign(id), signature)) {
+      throw new IllegalArgumentException("Invalid cursor signature");
+    }
+    return new String(id, StandardCharsets.UTF_8);
+  }
+
+  private byte[] sign(byte[] id) {
+    try {
+      // Mac no es thread-safe: una instancia por llamada
+      Mac mac = Mac.getInstance(ALGORITHM);
+      mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+      return Arrays.copyOf(mac.doFinal(id), SIGNATURE_BYTES);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Cannot sign page cursor", e);
+    }
+  }
+}
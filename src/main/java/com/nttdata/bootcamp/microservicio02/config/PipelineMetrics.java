@@ -0,0 +1,121 @@
+package com.nttdata.bootcamp.microservicio02.config;
+
+import com.nttdata.bootcamp.microservicio02.utils.constant.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Timers del flujo de cuentas: operaciones del servicio y llamadas a servicios externos, con
+ * histograma de percentiles para poder separar el tiempo de Mongo del de cada dependencia.
+ */
+@Component
+public class PipelineMetrics {
+
+  public static final String SERVICE_TIMER = "account.service";
+  public static final String DOWNSTREAM_TIMER = "account.downstream";
+  public static final String REJECTION_COUNTER = "account.rejections";
+
+  // Indice en el arreglo de timers de cada operacion
+  private static final int SUCCESS = 0;
+  private static final int ERROR = 1;
+  private static final int CANCELLED = 2;
+  private static final String[] OUTCOMES = {"success", "error", "cancelled"};
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  // Meters registrados una sola vez: el camino caliente solo hace un get sobre el mapa
+  private final Map<String, Timer[]> serviceTimers = new ConcurrentHashMap<>();
+
+  private final Map<String, Timer[]> downstreamTimers = new ConcurrentHashMap<>();
+
+  private final Map<ErrorCode, Counter> rejectionCounters = new ConcurrentHashMap<>();
+
+  public <T> Mono<T> service(String operation, Mono<T> source) {
+    return timed(source, serviceTimers, SERVICE_TIMER, "operation", operation);
+  }
+
+  public <T> Flux<T> service(String operation, Flux<T> source) {
+    return timed(source, serviceTimers, SERVICE_TIMER, "operation", operation);
+  }
+
+  public <T> Mono<T> downstream(String client, Mono<T> source) {
+    return timed(source, downstreamTimers, DOWNSTREAM_TIMER, "client", client);
+  }
+
+  public <T> Flux<T> downstream(String client, Flux<T> source) {
+    return timed(source, downstreamTimers, DOWNSTREAM_TIMER, "client", client);
+  }
+
+  public void rejected(ErrorCode errorCode) {
+    Counter counter = rejectionCounters.get(errorCode);
+    if (counter == null) {
+      counter =
+          rejectionCounters.computeIfAbsent(
+              errorCode,
+              key ->
+                  Counter.builder(REJECTION_COUNTER)
+                      .description("Account operations rejected by a business rule")
+                      .tag("reason", key.name())
+                      .register(meterRegistry));
+    }
+    counter.increment();
+  }
+
+  // El tiempo se mide desde la suscripcion, no desde el ensamblado del pipeline
+  private <T> Mono<T> timed(
+      Mono<T> source, Map<String, Timer[]> timers, String name, String tagKey, String tagValue) {
+    return Mono.defer(
+        () -> {
+          Timer[] byOutcome = timers(timers, name, tagKey, tagValue);
+          Timer.Sample sample = Timer.start(meterRegistry);
+          return source.doFinally(signal -> sample.stop(byOutcome[outcome(signal)]));
+        });
+  }
+
+  private <T> Flux<T> timed(
+      Flux<T> source, Map<String, Timer[]> timers, String name, String tagKey, String tagValue) {
+    return Flux.defer(
+        () -> {
+          Timer[] byOutcome = timers(timers, name, tagKey, tagValue);
+          Timer.Sample sample = Timer.start(meterRegistry);
+          return source.doFinally(signal -> sample.stop(byOutcome[outcome(signal)]));
+        });
+  }
+
+  private Timer[] timers(Map<String, Timer[]> timers, String name, String tagKey, String tagValue) {
+    Timer[] byOutcome = timers.get(tagValue);
+    if (byOutcome != null) {
+      return byOutcome;
+    }
+    return timers.computeIfAbsent(
+        tagValue,
+        key -> {
+          Timer[] registered = new Timer[OUTCOMES.length];
+          for (int i = 0; i < OUTCOMES.length; i++) {
+            registered[i] =
+                Timer.builder(name)
+                    .tag(tagKey, key)
+                    .tag("outcome", OUTCOMES[i])
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+          }
+          return registered;
+        });
+  }
+
+  private static int outcome(SignalType signal) {
+    return switch (signal) {
+      case ON_ERROR -> ERROR;
+      case CANCEL -> CANCELLED;
+      default -> SUCCESS;
+    };
+  }
+}
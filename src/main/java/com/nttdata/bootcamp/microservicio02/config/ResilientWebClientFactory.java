@@ -0,0 +1,142 @@
+package com.nttdata.bootcamp.microservicio02.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Construye cada WebClient con su propio pool de conexiones, timeouts, bulkhead y circuit
+ * breaker, para que un servicio lento no consuma los recursos de los demas.
+ */
+@Slf4j
+public class ResilientWebClientFactory implements DisposableBean {
+
+  private final WebClient.Builder webClientBuilder;
+
+  private final WebClientProperties properties;
+
+  private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+  private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+
+  private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
+
+  public ResilientWebClientFactory(
+      WebClient.Builder webClientBuilder,
+      WebClientProperties properties,
+      MeterRegistry meterRegistry) {
+    this.webClientBuilder = webClientBuilder;
+    this.properties = properties;
+    TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry)
+        .bindTo(meterRegistry);
+    TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+  }
+
+  public WebClient create(String name, String baseUrl) {
+    WebClientProperties.Client client = properties.client(name);
+    log.info("Building WebClient [{}] for {} with {}", name, baseUrl, client);
+    return webClientBuilder
+        .clone()
+        .baseUrl(baseUrl)
+        .clientConnector(new ReactorClientHttpConnector(httpClient(name, client)))
+        .defaultHeaders(headers -> wireFormat(headers, client))
+        .filter(resilience(name, client))
+        .build();
+  }
+
+  public CircuitBreaker circuitBreaker(String name) {
+    return circuitBreakerRegistry.circuitBreaker(name);
+  }
+
+  @Override
+  public void destroy() {
+    connectionProviders.forEach(ConnectionProvider::dispose);
+  }
+
+  private static void wireFormat(HttpHeaders headers, WebClientProperties.Client client) {
+    if (client.isSmile()) {
+      headers.setContentType(SmileCodecConfig.APPLICATION_SMILE);
+      headers.setAccept(List.of(SmileCodecConfig.APPLICATION_SMILE, MediaType.APPLICATION_JSON));
+    } else {
+      headers.setContentType(MediaType.APPLICATION_JSON);
+      headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+    }
+  }
+
+  private HttpClient httpClient(String name, WebClientProperties.Client client) {
+    ConnectionProvider connectionProvider =
+        ConnectionProvider.builder(name)
+            .maxConnections(client.getMaxConnections())
+            .pendingAcquireMaxCount(client.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(client.getPendingAcquireTimeout())
+            .maxIdleTime(client.getMaxIdleTime())
+            .maxLifeTime(client.getMaxLifeTime())
+            .evictInBackground(client.getEvictInBackground())
+            .metrics(true)
+            .build();
+    connectionProviders.add(connectionProvider);
+    return HttpClient.create(connectionProvider)
+        .option(
+            ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) client.getConnectTimeout().toMillis())
+        .responseTimeout(client.getResponseTimeout());
+  }
+
+  private ExchangeFilterFunction resilience(String name, WebClientProperties.Client client) {
+    // maxWaitDuration en cero: el bulkhead rechaza en lugar de bloquear el event loop
+    Bulkhead bulkhead =
+        bulkheadRegistry.bulkhead(
+            name,
+            BulkheadConfig.custom()
+                .maxConcurrentCalls(client.getBulkheadMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    // Los 5xx cuentan como fallo aunque no lleguen como excepcion; el bulkhead lleno no
+    CircuitBreaker circuitBreaker =
+        circuitBreakerRegistry.circuitBreaker(
+            name,
+            CircuitBreakerConfig.custom()
+                .failureRateThreshold(client.getFailureRateThreshold())
+                .slowCallRateThreshold(client.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(client.getSlowCallDurationThreshold())
+                .slidingWindowSize(client.getSlidingWindowSize())
+                .minimumNumberOfCalls(client.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(client.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(
+                    client.getPermittedNumberOfCallsInHalfOpenState())
+                .recordResult(
+                    result ->
+                        result instanceof ClientResponse response
+                            && response.statusCode().is5xxServerError())
+                .ignoreExceptions(BulkheadFullException.class)
+                .build());
+    return (request, next) ->
+        next.exchange(request)
+            .transformDeferred(BulkheadOperator.of(bulkhead))
+            .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+            .doOnError(
+                error -> log.warn("WebClient [{}] request error: {}", name, error.toString()));
+  }
+}
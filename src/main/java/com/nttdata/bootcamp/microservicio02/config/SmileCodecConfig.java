@@ -0,0 +1,36 @@
+package com.nttdata.bootcamp.microservicio02.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Registra Smile (JSON binario de Jackson) junto a JSON en el servidor y en los WebClient. Se
+ * elige por Accept / Content-Type; quien no lo pide sigue recibiendo JSON.
+ */
+@Configuration
+public class SmileCodecConfig {
+
+  public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+  public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+  // Variante de streaming: un valor Smile tras otro, como NDJSON
+  public static final String APPLICATION_STREAM_SMILE_VALUE = "application/stream+x-jackson-smile";
+
+  @Bean
+  public CodecCustomizer smileCodecCustomizer(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+    // El builder de Spring Boot es prototype: mismos modulos y features que el mapper JSON
+    ObjectMapper smileMapper = objectMapperBuilder.factory(new SmileFactory()).build();
+    return configurer -> {
+      configurer.customCodecs().register(new Jackson2SmileEncoder(smileMapper));
+      configurer.customCodecs().register(new Jackson2SmileDecoder(smileMapper));
+    };
+  }
+}
@@ -1,15 +1,14 @@
 package com.nttdata.bootcamp.microservicio02.config;
 
-import lombok.extern.slf4j.Slf4j;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
 
 @Configuration
-@Slf4j
+@EnableConfigurationProperties(WebClientProperties.class)
 public class WebClientConfig {
 
   @Value("${application.endpoints.url.customer}")
@@ -22,38 +21,25 @@ public class WebClientConfig {
   private String urlEndpointTransaction;
 
   @Bean
-  public WebClient webClientCustomer() {
-    return WebClient.builder()
-        .baseUrl(urlEndpointCustomer)
-        .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-        .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-        .filter(
-            (request, next) ->
-                next.exchange(request).doOnError(e -> log.info("WebClient request error", e)))
-        .build();
+  public ResilientWebClientFactory resilientWebClientFactory(
+      WebClient.Builder webClientBuilder,
+      WebClientProperties webClientProperties,
+      MeterRegistry meterRegistry) {
+    return new ResilientWebClientFactory(webClientBuilder, webClientProperties, meterRegistry);
   }
 
   @Bean
-  public WebClient webClientCredit() {
-    return WebClient.builder()
-        .baseUrl(urlEndpointCredit)
-        .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-        .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-        .filter(
-            (request, next) ->
-                next.exchange(request).doOnError(e -> log.info("WebClient request error", e)))
-        .build();
+  public WebClient webClientCustomer(ResilientWebClientFactory resilientWebClientFactory) {
+    return resilientWebClientFactory.create("customer", urlEndpointCustomer);
   }
 
   @Bean
-  public WebClient webClientTransaction() {
-    return WebClient.builder()
-        .baseUrl(urlEndpointTransaction)
-        .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-        .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
-        .filter(
-            (request, next) ->
-                next.exchange(request).doOnError(e -> log.info("WebClient request error", e)))
-        .build();
+  public WebClient webClientCredit(ResilientWebClientFactory resilientWebClientFactory) {
+    return resilientWebClientFactory.create("credit", urlEndpointCredit);
+  }
+
+  @Bean
+  public WebClient webClientTransaction(ResilientWebClientFactory resilientWebClientFactory) {
+    return resilientWebClientFactory.create("transaction", urlEndpointTransaction);
   }
 }
@@ -1,12 +1,23 @@
 package com.nttdata.bootcamp.microservicio02.config;
 
 import com.nttdata.bootcamp.microservicio02.model.Credit;
+import com.nttdata.bootcamp.microservicio02.model.CreditType;
 import com.nttdata.bootcamp.microservicio02.model.Customer;
 import com.nttdata.bootcamp.microservicio02.model.Transaction;
+import com.nttdata.bootcamp.microservicio02.utils.reactive.MicroBatcher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -14,52 +25,152 @@ import reactor.core.publisher.Mono;
 @Configuration
 public class WebClientHelper {
 
+  public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
   @Autowired private WebClient webClientCustomer;
 
   @Autowired private WebClient webClientCredit;
 
   @Autowired private WebClient webClientTransaction;
 
+  @Autowired private CustomerCache customerCache;
+
+  @Autowired private PipelineMetrics pipelineMetrics;
+
+  @Value("${application.credit-eligibility.batch-enabled}")
+  private boolean eligibilityBatchEnabled;
+
+  @Value("${application.credit-eligibility.max-batch-size}")
+  private int eligibilityMaxBatchSize;
+
+  @Value("${application.credit-eligibility.max-wait}")
+  private Duration eligibilityMaxWait;
+
+  @Value("${application.credit-eligibility.concurrency}")
+  private int eligibilityConcurrency;
+
+  @Value("${application.credit-eligibility.caller-timeout}")
+  private Duration eligibilityCallerTimeout;
+
+  @Value("${application.credit-eligibility.unsupported-retry-after}")
+  private Duration eligibilityUnsupportedRetryAfter;
+
+  private MicroBatcher<String, Boolean> cardBankBatcher;
+
+  // Mientras el servicio de creditos no exponga el contrato por lotes se consulta id por id
+  private volatile long eligibilityBatchUnsupportedUntil;
+
+  @PostConstruct
+  public void init() {
+    cardBankBatcher =
+        new MicroBatcher<>(
+            "credit-card-bank",
+            eligibilityMaxBatchSize,
+            eligibilityMaxWait,
+            eligibilityConcurrency,
+            eligibilityCallerTimeout,
+            this::fetchCardBankEligibility,
+            this::fetchCardBankActive);
+    eligibilityBatchUnsupportedUntil = System.nanoTime();
+  }
+
+  @PreDestroy
+  public void destroy() {
+    cardBankBatcher.dispose();
+  }
+
+  // Solo un 404 es "no existe": el resto de fallos se propaga para que el control de admision
+  // los cuente como congestion y no como una respuesta normal
   public Mono<Customer> findByIdCustomerService(String id) {
+    return customerCache
+        .get(id, this::fetchCustomer)
+        .doOnError(error -> log.error("Error during call: " + error.getMessage()));
+  }
+
+  private Mono<Customer> fetchCustomer(String id) {
     log.info("Getting client with id: [{}]", id);
-    return this.webClientCustomer
-        .get()
-        .uri(uriBuilder -> uriBuilder.path("v1/customers/" + id).build())
-        .retrieve()
-        .bodyToMono(Customer.class)
-        .onErrorResume(
-            error -> {
-              log.error("Error during call: " + error.getMessage());
-              return Mono.empty();
-            });
+    // Solo un 404 se cachea como "not found"; el resto de errores no se guarda en cache
+    return pipelineMetrics
+        .downstream(
+            "customer",
+            this.webClientCustomer
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("v1/customers/" + id).build())
+                .retrieve()
+                .bodyToMono(Customer.class))
+        .onErrorResume(WebClientResponseException.NotFound.class, error -> Mono.empty());
   }
 
   public Flux<Credit> findByIdCreditService(String id) {
     log.info("Getting credit with id: [{}]", id);
-    return this.webClientCredit
-        .get()
-        .uri(uriBuilder -> uriBuilder.path("v1/credits/customer/" + id).build())
-        .retrieve()
-        .bodyToFlux(Credit.class)
-        .onErrorResume(
+    return pipelineMetrics
+        .downstream(
+            "credit",
+            this.webClientCredit
+                .get()
+                .uri(uriBuilder -> uriBuilder.path("v1/credits/customer/" + id).build())
+                .retrieve()
+                .bodyToFlux(Credit.class))
+        .onErrorResume(WebClientResponseException.NotFound.class, error -> Flux.empty())
+        .doOnError(error -> log.error("Error during call: " + error.getMessage()));
+  }
+
+  public Mono<Boolean> hasActiveCardBank(String customerId) {
+    if (!eligibilityBatchEnabled || System.nanoTime() - eligibilityBatchUnsupportedUntil < 0) {
+      return fetchCardBankActive(customerId);
+    }
+    return cardBankBatcher.get(customerId);
+  }
+
+  private Mono<Boolean> fetchCardBankActive(String customerId) {
+    return findByIdCreditService(customerId)
+        .filter(Credit::getActive)
+        .filter(credit -> CreditType.CARD_BANK.equals(credit.getCreditType()))
+        .hasElements();
+  }
+
+  // Contrato por lotes: POST con la lista de ids, responde {customerId: tiene CARD_BANK activa}
+  private Mono<Map<String, Boolean>> fetchCardBankEligibility(List<String> customerIds) {
+    log.info("Getting card bank eligibility for {} customers", customerIds.size());
+    return pipelineMetrics
+        .downstream(
+            "credit",
+            this.webClientCredit
+                .post()
+                .uri(uriBuilder -> uriBuilder.path("v1/credits/eligibility/card-bank").build())
+                .bodyValue(customerIds)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Boolean>>() {}))
+        .doOnError(
+            WebClientResponseException.class,
             error -> {
-              log.error("Error during call: " + error.getMessage());
-              return Flux.empty();
+              if (isBatchUnsupported(error)) {
+                eligibilityBatchUnsupportedUntil =
+                    System.nanoTime() + eligibilityUnsupportedRetryAfter.toNanos();
+              }
             });
   }
 
-  public Mono<Transaction> createTransactionWithOpeningAmount(Transaction transaction) {
+  private static boolean isBatchUnsupported(WebClientResponseException error) {
+    return error.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)
+        || error.getStatusCode().isSameCodeAs(HttpStatus.METHOD_NOT_ALLOWED)
+        || error.getStatusCode().isSameCodeAs(HttpStatus.NOT_IMPLEMENTED);
+  }
+
+  // La misma clave en cada reintento: el servicio de transacciones descarta los duplicados
+  public Mono<Transaction> createTransactionWithOpeningAmount(
+      Transaction transaction, String idempotencyKey) {
     log.info("Create Transaction with Opening Ammount");
-    return this.webClientTransaction
-        .post()
-        .uri(uriBuilder -> uriBuilder.path("v1/transactions").build())
-        .bodyValue(transaction)
-        .retrieve()
-        .bodyToMono(Transaction.class)
-        .onErrorResume(
-            error -> {
-              log.error("Error during call: " + error.getMessage());
-              return Mono.empty();
-            });
+    return pipelineMetrics
+        .downstream(
+            "transaction",
+            this.webClientTransaction
+                .post()
+                .uri(uriBuilder -> uriBuilder.path("v1/transactions").build())
+                .header(IDEMPOTENCY_KEY, idempotencyKey)
+                .bodyValue(transaction)
+                .retrieve()
+                .bodyToMono(Transaction.class))
+        .doOnError(error -> log.error("Error during call: " + error.getMessage()));
   }
 }
@@ -0,0 +1,46 @@
+package com.nttdata.bootcamp.microservicio02.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/** Pool, timeouts, bulkhead y circuit breaker de cada WebClient, por nombre de cliente. */
+@Data
+@ConfigurationProperties(prefix = "application.web-client")
+public class WebClientProperties {
+
+  private Map<String, Client> clients = new HashMap<>();
+
+  public Client client(String name) {
+    return clients.getOrDefault(name, new Client());
+  }
+
+  @Data
+  public static class Client {
+
+    private int maxConnections = 50;
+    private int pendingAcquireMaxCount = 100;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(1);
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    private Duration evictInBackground = Duration.ofSeconds(30);
+
+    private Duration connectTimeout = Duration.ofSeconds(1);
+    private Duration responseTimeout = Duration.ofSeconds(2);
+
+    private int bulkheadMaxConcurrentCalls = 50;
+
+    // Solo si el servicio destino entiende Smile; las respuestas JSON se siguen aceptando
+    private boolean smile = false;
+
+    private float failureRateThreshold = 50;
+    private float slowCallRateThreshold = 80;
+    private Duration slowCallDurationThreshold = Duration.ofSeconds(1);
+    private int slidingWindowSize = 50;
+    private int minimumNumberOfCalls = 20;
+    private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+    private int permittedNumberOfCallsInHalfOpenState = 5;
+  }
+}
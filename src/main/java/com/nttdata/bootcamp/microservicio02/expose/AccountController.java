@@ -1,12 +1,28 @@
 package com.nttdata.bootcamp.microservicio02.expose;
 
+import com.nttdata.bootcamp.microservicio02.config.SmileCodecConfig;
 import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.model.request.AccountFilter;
+import com.nttdata.bootcamp.microservicio02.model.request.AccountLookupRequest;
 import com.nttdata.bootcamp.microservicio02.model.request.AccountRequest;
+import com.nttdata.bootcamp.microservicio02.model.request.BalanceRequest;
+import com.nttdata.bootcamp.microservicio02.model.response.AccountBulkResult;
+import com.nttdata.bootcamp.microservicio02.model.response.AccountLookupResult;
+import com.nttdata.bootcamp.microservicio02.model.response.AccountPage;
 import com.nttdata.bootcamp.microservicio02.service.AccountService;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -14,7 +30,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
@@ -30,9 +48,18 @@ public class AccountController {
 
 
   @GetMapping({"/{id}/", "/{id}"})
-  public Mono<Account> findbyId(@PathVariable("id") String id) {
+  public Mono<ResponseEntity<Account>> findbyId(@PathVariable("id") String id) {
     log.info("Find by id a account in the controller.");
-    return accountService.findById(id);
+    // Con ETag, WebFlux responde 304 sin cuerpo si coincide con If-None-Match
+    return accountService.findById(id).map(AccountController::withETag);
+  }
+
+  // Con fields= solo se leen y serializan los campos pedidos (y el id)
+  @GetMapping(value = {"/{id}/", "/{id}"}, params = "fields")
+  public Mono<Map<String, Object>> findFieldsById(
+      @PathVariable("id") String id, @RequestParam("fields") String fields) {
+    log.info("Find by id the fields of an account in the controller.");
+    return accountService.findFieldsById(id, fields);
   }
 
   @GetMapping({"", "/"})
@@ -41,6 +68,47 @@ public class AccountController {
     return accountService.findAll();
   }
 
+  @GetMapping(value = {"", "/"}, params = "fields")
+  public Flux<Map<String, Object>> findAllFields(@RequestParam("fields") String fields) {
+    log.info("List the fields of all accounts in the controller.");
+    return accountService.findAllFields(fields);
+  }
+
+  // Resultados en el orden de la peticion, con found=false para los que no existen
+  @PostMapping(
+      value = {"/lookup", "/lookup/"},
+      produces = {
+        MediaType.APPLICATION_JSON_VALUE,
+        MediaType.APPLICATION_NDJSON_VALUE,
+        SmileCodecConfig.APPLICATION_SMILE_VALUE,
+        SmileCodecConfig.APPLICATION_STREAM_SMILE_VALUE
+      })
+  public Flux<AccountLookupResult> lookup(@RequestBody AccountLookupRequest request) {
+    log.info("Lookup accounts by id in the controller.");
+    return accountService.lookup(request);
+  }
+
+  @GetMapping({"/page", "/page/"})
+  public Mono<AccountPage> findPage(
+      AccountFilter filter,
+      @RequestParam(value = "cursor", required = false) String cursor,
+      @RequestParam(value = "size", required = false) Integer size) {
+    log.info("List a page of accounts in the controller.");
+    return accountService.findPage(filter, cursor, size);
+  }
+
+  @GetMapping(
+      value = {"/stream", "/stream/"},
+      produces = {
+        MediaType.APPLICATION_NDJSON_VALUE,
+        MediaType.TEXT_EVENT_STREAM_VALUE,
+        SmileCodecConfig.APPLICATION_STREAM_SMILE_VALUE
+      })
+  public Flux<Account> stream(AccountFilter filter) {
+    log.info("Stream accounts in the controller.");
+    return accountService.stream(filter);
+  }
+
   @PostMapping({"", "/"})
   @ResponseStatus(HttpStatus.CREATED)
   public Mono<Account> create(@RequestBody AccountRequest account) {
@@ -48,38 +116,124 @@ public class AccountController {
     return accountService.create(account);
   }
 
+  @PostMapping(
+      value = {"/bulk", "/bulk/"},
+      consumes = {
+        MediaType.APPLICATION_NDJSON_VALUE,
+        SmileCodecConfig.APPLICATION_STREAM_SMILE_VALUE
+      },
+      produces = {
+        MediaType.APPLICATION_NDJSON_VALUE,
+        SmileCodecConfig.APPLICATION_STREAM_SMILE_VALUE
+      })
+  public Flux<AccountBulkResult> createBulk(@RequestBody Flux<AccountRequest> accounts) {
+    log.info("Create accounts in bulk in the controller.");
+    return accountService.createAll(accounts);
+  }
+
   @PutMapping({"/{id}/", "/{id}"})
   public Mono<ResponseEntity<Account>> update(
-      @RequestBody Account account, @PathVariable("id") String accountId) {
+      @RequestBody Account account,
+      @PathVariable("id") String accountId,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
     log.info("Update an account in the controller.");
     return accountService
-        .update(account, accountId)
-        .flatMap(accountUpdate -> Mono.just(ResponseEntity.ok(accountUpdate)))
+        .update(account, accountId, expectedVersions(ifMatch))
+        .map(AccountController::withETag)
         .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
   }
 
   @PatchMapping({"/{id}/", "/{id}"})
   public Mono<ResponseEntity<Account>> change(
-      @RequestBody Account account, @PathVariable("id") String accountId) {
+      @RequestBody Account account,
+      @PathVariable("id") String accountId,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
     log.info("Change an account in the controller.");
     return accountService
-        .change(account, accountId)
-        .flatMap(accountUpdate -> Mono.just(ResponseEntity.ok(accountUpdate)))
+        .change(account, accountId, expectedVersions(ifMatch))
+        .map(AccountController::withETag)
         .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
   }
 
   @DeleteMapping({"/{id}/", "/{id}"})
-  public Mono<ResponseEntity<Account>> delete(@PathVariable("id") String id) {
+  public Mono<ResponseEntity<Account>> delete(
+      @PathVariable("id") String id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
     log.info("Delete an account in the controller.");
     return accountService
-        .remove(id)
-        .flatMap(account -> Mono.just(ResponseEntity.ok(account)))
+        .remove(id, expectedVersions(ifMatch))
+        .map(AccountController::withETag)
         .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
   }
 
   @GetMapping({"/customer/{id}/", "/customer/{id}"})
-  public Flux<Account> findAccountsByCustomerId(@PathVariable("id") String customerId) {
+  public Mono<ResponseEntity<List<Account>>> findAccountsByCustomerId(
+      @PathVariable("id") String customerId) {
     log.info("List all accounts for customerId in the controller.");
-    return accountService.findByCustomerId(customerId);
+    return accountService
+        .findByCustomerId(customerId)
+        .collectList()
+        .map(accounts -> ResponseEntity.ok().eTag(listETag(accounts)).body(accounts));
+  }
+
+  @GetMapping(value = {"/customer/{id}/", "/customer/{id}"}, params = "fields")
+  public Flux<Map<String, Object>> findFieldsByCustomerId(
+      @PathVariable("id") String customerId, @RequestParam("fields") String fields) {
+    log.info("List the fields of the accounts for customerId in the controller.");
+    return accountService.findFieldsByCustomerId(customerId, fields);
+  }
+
+  @PostMapping({"/{id}/debit", "/{id}/debit/"})
+  public Mono<Account> debit(
+      @RequestBody BalanceRequest balanceRequest, @PathVariable("id") String accountId) {
+    log.info("Debit an account in the controller.");
+    return accountService.debit(accountId, balanceRequest.getAmount());
+  }
+
+  @PostMapping({"/{id}/credit", "/{id}/credit/"})
+  public Mono<Account> credit(
+      @RequestBody BalanceRequest balanceRequest, @PathVariable("id") String accountId) {
+    log.info("Credit an account in the controller.");
+    return accountService.credit(accountId, balanceRequest.getAmount());
+  }
+
+  private static ResponseEntity<Account> withETag(Account account) {
+    return ResponseEntity.ok().eTag(etag(account)).body(account);
+  }
+
+  private static String etag(Account account) {
+    return "\"" + (account.getVersion() == null ? 0L : account.getVersion()) + "\"";
+  }
+
+  // ETag debil de la lista: cambia si se agrega, quita o modifica alguna de sus cuentas
+  private static String listETag(List<Account> accounts) {
+    String versions =
+        accounts.stream()
+            .map(account -> account.getId() + ":" + account.getVersion())
+            .collect(Collectors.joining(","));
+    return "W/\""
+        + DigestUtils.md5DigestAsHex(versions.getBytes(StandardCharsets.UTF_8))
+        + "\"";
+  }
+
+  // "*" o sin cabecera no exige version. If-Match compara en forma fuerte (RFC 9110): las
+  // etiquetas debiles o ilegibles se ignoran y, si no queda ninguna, responde 412
+  private static Set<Long> expectedVersions(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    Set<Long> versions = new HashSet<>();
+    for (String tag : ifMatch.split(",")) {
+      String value = tag.trim();
+      if (value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+        continue;
+      }
+      try {
+        versions.add(Long.valueOf(value.substring(1, value.length() - 1)));
+      } catch (NumberFormatException e) {
+        // No es una version de esta API: no coincide con ninguna cuenta
+      }
+    }
+    return versions;
   }
 }
@@ -0,0 +1,50 @@
+package com.nttdata.bootcamp.microservicio02.expose;
+
+import com.nttdata.bootcamp.microservicio02.config.SmileCodecConfig;
+import com.nttdata.bootcamp.microservicio02.model.response.BalanceSummary;
+import com.nttdata.bootcamp.microservicio02.model.response.CustomerAccountCount;
+import com.nttdata.bootcamp.microservicio02.model.response.PortfolioSnapshot;
+import com.nttdata.bootcamp.microservicio02.service.ReportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Slf4j
+@RequestMapping("api/v1/accounts/reports")
+public class ReportController {
+
+  @Autowired private ReportService reportService;
+
+  @GetMapping({"/balances", "/balances/"})
+  public Flux<BalanceSummary> balances(
+      @RequestParam(value = "by", defaultValue = "accountType") String by) {
+    log.info("Balance report by {} in the controller.", by);
+    return reportService.balances(by);
+  }
+
+  // Una linea por cliente: se puede leer como NDJSON sin esperar al final del cursor
+  @GetMapping(
+      value = {"/customers", "/customers/"},
+      produces = {
+        MediaType.APPLICATION_NDJSON_VALUE,
+        MediaType.APPLICATION_JSON_VALUE,
+        SmileCodecConfig.APPLICATION_STREAM_SMILE_VALUE
+      })
+  public Flux<CustomerAccountCount> accountsByCustomer() {
+    log.info("Accounts by customer report in the controller.");
+    return reportService.accountsByCustomer();
+  }
+
+  @GetMapping({"/snapshot", "/snapshot/"})
+  public Mono<PortfolioSnapshot> snapshot() {
+    log.info("Portfolio snapshot in the controller.");
+    return reportService.snapshot();
+  }
+}
@@ -1,36 +1,73 @@
 package com.nttdata.bootcamp.microservicio02.model;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "account")
+@CompoundIndexes({
+  @CompoundIndex(
+      name = "customer_accountType_active",
+      def = "{'customer': 1, 'accountType': 1, 'active': 1}"),
+  // Un cliente personal solo puede tener una cuenta de cada tipo
+  @CompoundIndex(
+      name = Account.PERSONAL_ACCOUNT_TYPE_INDEX,
+      def = "{'customer': 1, 'accountType': 1}",
+      unique = true,
+      partialFilter = "{'customerType': 'PERSONAL'}"),
+  @CompoundIndex(
+      name = "isDailyAverageMonth_dailyAveragePeriod",
+      def = "{'isDailyAverageMonth': 1, 'dailyAveragePeriod': 1, '_id': 1}"),
+  @CompoundIndex(
+      name = "accountType_amountAvailable",
+      def = "{'accountType': 1, 'amountAvailable': 1}")
+})
 public class Account {
-  @Id private String id = UUID.randomUUID().toString();
-  private String accountNumber;
+  public static final String PERSONAL_ACCOUNT_TYPE_INDEX = "customer_accountType_personal_unique";
+
+  @Id private String id;
+  @Version private Long version; // Se expone como ETag; los documentos sin campo cuentan como 0
+  @Indexed(unique = true) private String accountNumber;
   private String customer;
+  private String customerType;
   private AccountType accountType;
   private String currency;
+  // Montos como Decimal128: Mongo puede compararlos, ordenarlos y sumarlos en el servidor
+  @Indexed
+  @Field(targetType = FieldType.DECIMAL128)
   private BigDecimal amountAvailable;
   private Integer transactionLimit;
   private Double commissionRate;
   private Integer commissionTransactionLimit;
   private Integer commissionRateForTransactionLimit;
+  private Integer transactionCount; // Movimientos del periodo actual
+  private String transactionPeriod; // Periodo (yyyy-MM) al que corresponde transactionCount
   private Boolean active;
   private Integer dateAllowedTransaction;
+  @Field(targetType = FieldType.DECIMAL128)
   private BigDecimal dailyAverageMonth;
   private Boolean isDailyAverageMonth;
+  @Field(targetType = FieldType.DECIMAL128)
+  private BigDecimal balanceSeconds; // Saldo x segundos acumulado en dailyAveragePeriod
+  private Instant balanceChangedAt;
+  private String dailyAveragePeriod; // Periodo (yyyy-MM) en curso del promedio diario
   private List<String> holders = new ArrayList<>(); // Lista de titulares
   private List<String> authorizedSigners = new ArrayList<>(); // Lista de Firmantes autorizados
 }
@@ -0,0 +1,15 @@
+package com.nttdata.bootcamp.microservicio02.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum OutboxStatus {
+  PENDING("001", "PENDIENTE"),
+  SENT("002", "ENVIADO"),
+  FAILED("003", "FALLIDO");
+
+  private final String code;
+  private final String description;
+}
@@ -0,0 +1,18 @@
+package com.nttdata.bootcamp.microservicio02.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "sequence")
+public class Sequence {
+  @Id private String id;
+  private Long value; // Ultimo valor reservado
+}
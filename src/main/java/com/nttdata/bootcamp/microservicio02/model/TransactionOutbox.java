@@ -0,0 +1,27 @@
+package com.nttdata.bootcamp.microservicio02.model;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "transaction_outbox")
+@CompoundIndex(name = "status_nextAttemptAt", def = "{'status': 1, 'nextAttemptAt': 1}")
+public class TransactionOutbox {
+  @Id private String id;
+  private Transaction transaction;
+  private OutboxStatus status;
+  private Integer attempts;
+  private Instant createdAt;
+  private Instant nextAttemptAt; // Tambien actua como lease mientras un nodo la esta enviando
+  private Instant sentAt;
+  private String lastError;
+}
@@ -0,0 +1,20 @@
+package com.nttdata.bootcamp.microservicio02.model.request;
+
+import com.nttdata.bootcamp.microservicio02.model.AccountType;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountFilter {
+  private Boolean active;
+  private AccountType accountType;
+  private String customer;
+  private BigDecimal minBalance; // Rango de amountAvailable, ambos extremos incluidos
+  private BigDecimal maxBalance;
+}
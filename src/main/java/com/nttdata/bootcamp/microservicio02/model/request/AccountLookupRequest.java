@@ -0,0 +1,16 @@
+package com.nttdata.bootcamp.microservicio02.model.request;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountLookupRequest {
+  private List<String> ids; // Se usa una sola de las dos listas
+  private List<String> accountNumbers;
+}
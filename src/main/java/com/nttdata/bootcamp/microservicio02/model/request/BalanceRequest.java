@@ -0,0 +1,15 @@
+package com.nttdata.bootcamp.microservicio02.model.request;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceRequest {
+  private BigDecimal amount;
+}
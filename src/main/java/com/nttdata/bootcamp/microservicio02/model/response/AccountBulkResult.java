@@ -0,0 +1,43 @@
+package com.nttdata.bootcamp.microservicio02.model.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.utils.constant.ErrorCode;
+import com.nttdata.bootcamp.microservicio02.utils.exception.OperationNoCompletedException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AccountBulkResult {
+  private Long index; // Posicion de la linea en el stream de entrada
+  private Account account;
+  private String errorCode;
+  private String errorMessage;
+
+  public static AccountBulkResult created(long index, Account account) {
+    return new AccountBulkResult(index, account, null, null);
+  }
+
+  public static AccountBulkResult failed(long index, ErrorCode errorCode) {
+    return new AccountBulkResult(index, null, errorCode.getCode(), errorCode.getMessage());
+  }
+
+  public static AccountBulkResult failed(long index, Throwable error) {
+    if (error instanceof OperationNoCompletedException exception) {
+      return failed(index, exception.getError());
+    }
+    return failed(index, ErrorCode.INTERNAL_SERVER_ERROR);
+  }
+
+  @JsonIgnore
+  public boolean isFailed() {
+    return errorCode != null;
+  }
+}
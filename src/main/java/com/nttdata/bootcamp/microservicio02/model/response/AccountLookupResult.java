@@ -0,0 +1,35 @@
+package com.nttdata.bootcamp.microservicio02.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.utils.constant.ErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AccountLookupResult {
+  private String key; // Id o numero de cuenta tal como llego en la peticion
+  private Boolean found;
+  private Account account;
+  private String errorCode;
+  private String errorMessage;
+
+  public static AccountLookupResult found(String key, Account account) {
+    return new AccountLookupResult(key, true, account, null, null);
+  }
+
+  public static AccountLookupResult missing(String key) {
+    return new AccountLookupResult(
+        key,
+        false,
+        null,
+        ErrorCode.DATA_NOT_FOUND.getCode(),
+        ErrorCode.DATA_NOT_FOUND.getMessage());
+  }
+}
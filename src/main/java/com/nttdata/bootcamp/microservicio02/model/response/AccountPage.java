@@ -0,0 +1,17 @@
+package com.nttdata.bootcamp.microservicio02.model.response;
+
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountPage {
+  private List<Account> items;
+  private String nextCursor; // null cuando no hay mas paginas
+}
@@ -0,0 +1,18 @@
+package com.nttdata.bootcamp.microservicio02.model.response;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceSummary {
+  private String key; // Valor del campo agrupado (tipo de cuenta, moneda o estado)
+  private Long accounts;
+  private BigDecimal totalBalance;
+  private BigDecimal averageBalance;
+}
@@ -0,0 +1,18 @@
+package com.nttdata.bootcamp.microservicio02.model.response;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerAccountCount {
+  private String customer;
+  private Long accounts;
+  private Long activeAccounts;
+  private BigDecimal totalBalance;
+}
@@ -0,0 +1,19 @@
+package com.nttdata.bootcamp.microservicio02.model.response;
+
+import java.time.Instant;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PortfolioSnapshot {
+  private Instant generatedAt;
+  private List<BalanceSummary> byAccountType;
+  private List<BalanceSummary> byCurrency;
+  private List<BalanceSummary> byActive;
+}
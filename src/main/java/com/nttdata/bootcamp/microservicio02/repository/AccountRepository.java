@@ -1,12 +1,20 @@
 package com.nttdata.bootcamp.microservicio02.repository;
 
 import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.model.AccountType;
+import java.util.Collection;
 import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @Repository
-public interface AccountRepository extends ReactiveMongoRepository<Account, String> {
+public interface AccountRepository
+    extends ReactiveMongoRepository<Account, String>, AccountRepositoryCustom {
 
   Flux<Account> findByCustomer(String id);
+
+  Flux<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+  Mono<Boolean> existsByCustomerAndAccountType(String customer, AccountType accountType);
 }
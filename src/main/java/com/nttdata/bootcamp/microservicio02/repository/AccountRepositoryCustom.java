@@ -0,0 +1,46 @@
+package com.nttdata.bootcamp.microservicio02.repository;
+
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.model.request.AccountFilter;
+import com.nttdata.bootcamp.microservicio02.model.response.BalanceSummary;
+import com.nttdata.bootcamp.microservicio02.model.response.CustomerAccountCount;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface AccountRepositoryCustom {
+
+  Mono<Map<Integer, String>> insertAllUnordered(List<Account> accounts);
+
+  Flux<Account> findPage(AccountFilter filter, String afterId, int limit);
+
+  Flux<Account> stream(AccountFilter filter, int batchSize);
+
+  Flux<Map<String, Object>> findFields(Criteria criteria, Set<String> fields);
+
+  Mono<Account> patch(String id, Update update, Long expectedVersion);
+
+  Mono<Account> replace(Account account, long expectedVersion);
+
+  // amount con signo: negativo para un cargo, positivo para un abono
+  Mono<Account> applyMovement(String id, BigDecimal amount, String period, Instant now);
+
+  Flux<Account> findDailyAveragePage(String period, String afterId, int limit);
+
+  Mono<Integer> updateDailyAverages(List<Pair<Account, Update>> updates);
+
+  Flux<String> findLegacyMoneyIds(String afterId, int limit);
+
+  Mono<Long> convertMoneyToDecimal(List<String> ids);
+
+  Flux<BalanceSummary> summarizeBalances(String field, int batchSize);
+
+  Flux<CustomerAccountCount> countByCustomer(int batchSize);
+}
@@ -0,0 +1,463 @@
+package com.nttdata.bootcamp.microservicio02.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.result.UpdateResult;
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.model.request.AccountFilter;
+import com.nttdata.bootcamp.microservicio02.model.response.BalanceSummary;
+import com.nttdata.bootcamp.microservicio02.model.response.CustomerAccountCount;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.Fields;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+
+  private static final String VERSION = "version";
+
+  // Campos con @Field(targetType = DECIMAL128) en Account; los documentos previos los tienen como
+  // texto hasta que BalanceMigrationService los convierte
+  private static final Decimal128 DECIMAL_ZERO = new Decimal128(BigDecimal.ZERO);
+
+  private static final List<String> MONEY_FIELDS =
+      List.of("amountAvailable", "dailyAverageMonth", "balanceSeconds");
+
+  // Mientras dure la migracion conviven texto y Decimal128: $toDecimal acepta ambos
+  private static final AggregationExpression BALANCE =
+      ConvertOperators.valueOf("amountAvailable").convertToDecimal();
+
+  @Autowired private ReactiveMongoTemplate reactiveMongoTemplate;
+
+  @Override
+  public Mono<Map<Integer, String>> insertAllUnordered(List<Account> accounts) {
+    if (accounts.isEmpty()) {
+      return Mono.just(Map.of());
+    }
+    // En modo UNORDERED un documento rechazado no detiene el resto del lote
+    ReactiveBulkOperations bulkOperations =
+        reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Account.class);
+    bulkOperations.insert(accounts);
+    return bulkOperations
+        .execute()
+        .<Map<Integer, String>>map(result -> Map.of())
+        .onErrorResume(
+            error -> writeErrors(error).map(Mono::just).orElseGet(() -> Mono.error(error)));
+  }
+
+  @Override
+  public Flux<Account> findPage(AccountFilter filter, String afterId, int limit) {
+    Criteria criteria = filterCriteria(filter);
+    if (afterId != null) {
+      criteria.and("id").gt(afterId);
+    }
+    return reactiveMongoTemplate.find(
+        Query.query(criteria).with(Sort.by(Sort.Direction.ASC, "id")).limit(limit),
+        Account.class);
+  }
+
+  @Override
+  public Flux<Account> stream(AccountFilter filter, int batchSize) {
+    // El cursor pide lotes a Mongo segun la demanda del suscriptor
+    return reactiveMongoTemplate.find(
+        Query.query(filterCriteria(filter))
+            .with(Sort.by(Sort.Direction.ASC, "id"))
+            .cursorBatchSize(batchSize),
+        Account.class);
+  }
+
+  @Override
+  public Flux<Map<String, Object>> findFields(Criteria criteria, Set<String> fields) {
+    MongoConverter converter = reactiveMongoTemplate.getConverter();
+    MongoPersistentEntity<?> entity =
+        converter.getMappingContext().getRequiredPersistentEntity(Account.class);
+    List<MongoPersistentProperty> properties =
+        fields.stream().map(entity::getRequiredPersistentProperty).toList();
+    Query query = Query.query(criteria);
+    properties.forEach(property -> query.fields().include(property.getName()));
+    // Se lee el Document crudo: solo se convierten los campos pedidos, sin instanciar Account
+    return reactiveMongoTemplate
+        .query(Account.class)
+        .as(Document.class)
+        .matching(query)
+        .all()
+        .map(
+            document -> {
+              Map<String, Object> values = new LinkedHashMap<>();
+              for (MongoPersistentProperty property : properties) {
+                values.put(
+                    property.getName(),
+                    readValue(converter, document.get(property.getFieldName()), property));
+              }
+              return values;
+            });
+  }
+
+  @Override
+  public Mono<Account> patch(String id, Update update, Long expectedVersion) {
+    return reactiveMongoTemplate.findAndModify(
+        Query.query(withVersion(Criteria.where("id").is(id), expectedVersion)),
+        update.inc(VERSION, 1),
+        FindAndModifyOptions.options().returnNew(true),
+        Account.class);
+  }
+
+  @Override
+  public Mono<Account> replace(Account account, long expectedVersion) {
+    account.setVersion(expectedVersion + 1);
+    return reactiveMongoTemplate.findAndReplace(
+        Query.query(withVersion(Criteria.where("id").is(account.getId()), expectedVersion)),
+        account,
+        FindAndReplaceOptions.options().returnNew());
+  }
+
+  @Override
+  public Mono<Account> applyMovement(String id, BigDecimal amount, String period, Instant now) {
+    // Un solo findOneAndUpdate: las reglas van en el filtro y los calculos en un pipeline sobre
+    // los valores del documento, asi los escritores concurrentes de una cuenta no se invalidan
+    Document balance = expression("$ifNull", "$amountAvailable", DECIMAL_ZERO);
+    // Movimientos del periodo anteriores a este; los de un periodo pasado no cuentan
+    Document count =
+        expression(
+            "$cond",
+            expression("$eq", "$transactionPeriod", period),
+            expression("$ifNull", "$transactionCount", 0),
+            0);
+    // Pasado el numero de movimientos libres se cobra la comision por movimiento
+    Document commission =
+        expression(
+            "$cond",
+            expression(
+                "$and",
+                isSet("$commissionTransactionLimit"),
+                isSet("$commissionRateForTransactionLimit"),
+                expression("$gte", count, "$commissionTransactionLimit")),
+            expression("$toDecimal", "$commissionRateForTransactionLimit"),
+            DECIMAL_ZERO);
+    Document newBalance =
+        expression("$subtract", expression("$add", balance, new Decimal128(amount)), commission);
+    Document withinLimit =
+        expression(
+            "$or",
+            expression("$not", isSet("$transactionLimit")),
+            expression("$lt", count, "$transactionLimit"));
+    Bson filter =
+        Filters.and(
+            Filters.eq("_id", id),
+            Filters.eq("active", true),
+            // Los importes aun en texto solo los reescribe convertMoneyToDecimal
+            Filters.nor(legacyMoney()),
+            // Un promedio diario de un mes aun sin cerrar se cierra antes, fuera de este camino
+            Filters.or(
+                Filters.ne("isDailyAverageMonth", true),
+                Filters.in("dailyAveragePeriod", Arrays.asList(period, null))),
+            Filters.expr(expression("$and", withinLimit, expression("$gte", newBalance, 0))));
+
+    // Acumula saldo x segundos hasta 'now' con el saldo previo al movimiento
+    Date nowDate = Date.from(now);
+    Document changedAt = expression("$ifNull", "$balanceChangedAt", nowDate);
+    Document elapsedMillis = expression("$subtract", nowDate, changedAt);
+    Document seconds =
+        expression("$max", 0, expression("$floor", expression("$divide", elapsedMillis, 1000)));
+    Document balanceSeconds =
+        expression(
+            "$cond",
+            expression("$eq", "$dailyAveragePeriod", period),
+            expression(
+                "$add",
+                expression("$ifNull", "$balanceSeconds", DECIMAL_ZERO),
+                expression("$multiply", balance, seconds)),
+            DECIMAL_ZERO);
+    Document dailyAverage = expression("$eq", "$isDailyAverageMonth", true);
+    Document set =
+        new Document("amountAvailable", newBalance)
+            .append("transactionCount", expression("$add", count, 1))
+            .append("transactionPeriod", expression("$literal", period))
+            .append(
+                "balanceSeconds",
+                expression("$cond", dailyAverage, balanceSeconds, "$balanceSeconds"))
+            .append(
+                "balanceChangedAt",
+                expression(
+                    "$cond",
+                    dailyAverage,
+                    expression("$max", nowDate, changedAt),
+                    "$balanceChangedAt"))
+            .append(
+                "dailyAveragePeriod",
+                expression(
+                    "$cond",
+                    dailyAverage,
+                    expression("$literal", period),
+                    "$dailyAveragePeriod"))
+            .append(VERSION, expression("$add", expression("$ifNull", "$" + VERSION, 0L), 1L));
+
+    return reactiveMongoTemplate
+        .execute(
+            Account.class,
+            collection ->
+                collection.findOneAndUpdate(
+                    filter,
+                    List.of(new Document("$set", set)),
+                    new FindOneAndUpdateOptions().returnDocument(ReturnDocument.AFTER)))
+        .next()
+        .map(document -> reactiveMongoTemplate.getConverter().read(Account.class, document));
+  }
+
+  private static Document expression(String operator, Object... arguments) {
+    return new Document(operator, Arrays.asList(arguments));
+  }
+
+  private static Document isSet(String field) {
+    return expression("$ne", expression("$ifNull", field, null), null);
+  }
+
+  @Override
+  public Flux<Account> findDailyAveragePage(String period, String afterId, int limit) {
+    // Tambien los periodos anteriores: cuentas de un cierre cortado por max-duration, fallido u
+    // omitido se ponen al dia aqui, accrue ya cierra varios meses de una vez
+    Criteria criteria =
+        Criteria.where("isDailyAverageMonth")
+            .is(true)
+            .orOperator(
+                Criteria.where("dailyAveragePeriod").lte(period),
+                Criteria.where("dailyAveragePeriod").is(null));
+    if (afterId != null) {
+      criteria.and("id").gt(afterId);
+    }
+    Query query = Query.query(criteria).with(Sort.by(Sort.Direction.ASC, "id")).limit(limit);
+    query
+        .fields()
+        .include(
+            "id",
+            VERSION,
+            "amountAvailable",
+            "balanceSeconds",
+            "balanceChangedAt",
+            "dailyAveragePeriod");
+    return reactiveMongoTemplate.find(query, Account.class);
+  }
+
+  @Override
+  public Mono<Integer> updateDailyAverages(List<Pair<Account, Update>> updates) {
+    if (updates.isEmpty()) {
+      return Mono.just(0);
+    }
+    // Cada cierre solo aplica si la cuenta no se modifico desde que se leyo la pagina
+    ReactiveBulkOperations bulkOperations =
+        reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Account.class);
+    updates.forEach(
+        pair ->
+            bulkOperations.updateOne(
+                Query.query(
+                    withVersion(
+                            Criteria.where("id").is(pair.getFirst().getId()),
+                            versionOf(pair.getFirst()))
+                        .and("balanceChangedAt")
+                        .is(pair.getFirst().getBalanceChangedAt())
+                        .and("dailyAveragePeriod")
+                        .is(pair.getFirst().getDailyAveragePeriod())),
+                pair.getSecond().inc(VERSION, 1)));
+    return bulkOperations.execute().map(BulkWriteResult::getModifiedCount);
+  }
+
+  @Override
+  public Flux<String> findLegacyMoneyIds(String afterId, int limit) {
+    Bson legacy = legacyMoney();
+    Bson filter = afterId == null ? legacy : Filters.and(legacy, Filters.gt("_id", afterId));
+    return reactiveMongoTemplate
+        .execute(
+            Account.class,
+            collection ->
+                collection
+                    .find(filter)
+                    .projection(Projections.include("_id"))
+                    .sort(Sorts.ascending("_id"))
+                    .limit(limit))
+        .map(document -> document.getString("_id"));
+  }
+
+  private static Bson legacyMoney() {
+    return Filters.or(
+        MONEY_FIELDS.stream().map(field -> Filters.type(field, BsonType.STRING)).toList());
+  }
+
+  @Override
+  public Mono<Long> convertMoneyToDecimal(List<String> ids) {
+    // Update con pipeline: cada documento se convierte a partir de su valor actual, de forma
+    // atomica, asi una escritura concurrente nunca se pisa con un valor leido antes
+    Document converted = new Document();
+    MONEY_FIELDS.forEach(field -> converted.append(field, toDecimalIfString(field)));
+    List<Bson> pipeline = List.of(new Document("$set", converted));
+    return reactiveMongoTemplate
+        .execute(
+            Account.class, collection -> collection.updateMany(Filters.in("_id", ids), pipeline))
+        .next()
+        .map(UpdateResult::getModifiedCount);
+  }
+
+  private static Document toDecimalIfString(String field) {
+    String value = "$" + field;
+    return new Document(
+        "$cond",
+        List.of(
+            new Document("$eq", List.of(new Document("$type", value), "string")),
+            new Document("$toDecimal", value),
+            value));
+  }
+
+  @Override
+  public Flux<BalanceSummary> summarizeBalances(String field, int batchSize) {
+    return reactiveMongoTemplate.aggregate(
+        Aggregation.newAggregation(
+                Account.class,
+                Aggregation.group(field)
+                    .count()
+                    .as("accounts")
+                    .sum(BALANCE)
+                    .as("totalBalance")
+                    .avg(BALANCE)
+                    .as("averageBalance"),
+                Aggregation.project("accounts", "totalBalance", "averageBalance")
+                    .and(ConvertOperators.valueOf(Fields.UNDERSCORE_ID).convertToString())
+                    .as("key")
+                    .andExclude(Fields.UNDERSCORE_ID),
+                Aggregation.sort(Sort.Direction.ASC, "key"))
+            .withOptions(reportOptions(batchSize)),
+        BalanceSummary.class);
+  }
+
+  @Override
+  public Flux<CustomerAccountCount> countByCustomer(int batchSize) {
+    return reactiveMongoTemplate.aggregate(
+        Aggregation.newAggregation(
+                Account.class,
+                Aggregation.group("customer")
+                    .count()
+                    .as("accounts")
+                    .sum(
+                        ConditionalOperators.when(Criteria.where("active").is(true))
+                            .then(1)
+                            .otherwise(0))
+                    .as("activeAccounts")
+                    .sum(BALANCE)
+                    .as("totalBalance"),
+                Aggregation.project("accounts", "activeAccounts", "totalBalance")
+                    .and(Fields.UNDERSCORE_ID)
+                    .as("customer")
+                    .andExclude(Fields.UNDERSCORE_ID),
+                Aggregation.sort(Sort.Direction.ASC, "customer"))
+            .withOptions(reportOptions(batchSize)),
+        CustomerAccountCount.class);
+  }
+
+  // Los $group y $sort pueden pasar de 100 MB: se permite usar disco; el cursor se lee por lotes
+  private static AggregationOptions reportOptions(int batchSize) {
+    return AggregationOptions.builder().allowDiskUse(true).cursorBatchSize(batchSize).build();
+  }
+
+  // Mismo tipo que en Account (BigDecimal, Instant, enums), asi el JSON no cambia de forma
+  private static Object readValue(
+      MongoConverter converter, Object value, MongoPersistentProperty property) {
+    if (value == null || property.getType().isInstance(value)) {
+      return value;
+    }
+    return converter.getConversionService().convert(value, property.getType());
+  }
+
+  private static long versionOf(Account account) {
+    return account.getVersion() == null ? 0L : account.getVersion();
+  }
+
+  private static Criteria withVersion(Criteria criteria, Long expectedVersion) {
+    if (expectedVersion == null) {
+      return criteria;
+    }
+    // Los documentos escritos antes del campo version equivalen a la version 0
+    return expectedVersion == 0
+        ? criteria.and(VERSION).in(0L, null)
+        : criteria.and(VERSION).is(expectedVersion);
+  }
+
+  private Criteria filterCriteria(AccountFilter filter) {
+    Criteria criteria = new Criteria();
+    if (filter.getActive() != null) {
+      criteria.and("active").is(filter.getActive());
+    }
+    if (filter.getAccountType() != null) {
+      criteria.and("accountType").is(filter.getAccountType());
+    }
+    if (filter.getCustomer() != null) {
+      criteria.and("customer").is(filter.getCustomer());
+    }
+    if (filter.getMinBalance() != null || filter.getMaxBalance() != null) {
+      Criteria balance = criteria.and("amountAvailable");
+      if (filter.getMinBalance() != null) {
+        balance.gte(filter.getMinBalance());
+      }
+      if (filter.getMaxBalance() != null) {
+        balance.lte(filter.getMaxBalance());
+      }
+    }
+    return criteria;
+  }
+
+  // Posicion en el lote -> mensaje del error de escritura
+  private Optional<Map<Integer, String>> writeErrors(Throwable error) {
+    for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+      if (cause instanceof MongoBulkWriteException bulkWriteException) {
+        return Optional.of(byIndex(bulkWriteException.getWriteErrors()));
+      }
+      if (cause instanceof BulkOperationException bulkOperationException) {
+        return Optional.of(byIndex(bulkOperationException.getErrors()));
+      }
+    }
+    return Optional.empty();
+  }
+
+  private Map<Integer, String> byIndex(List<BulkWriteError> errors) {
+    return errors.stream()
+        .collect(
+            Collectors.toMap(
+                BulkWriteError::getIndex, BulkWriteError::getMessage, (first, second) -> first));
+  }
+}
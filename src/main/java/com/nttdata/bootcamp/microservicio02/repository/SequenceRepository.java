@@ -0,0 +1,9 @@
+package com.nttdata.bootcamp.microservicio02.repository;
+
+import com.nttdata.bootcamp.microservicio02.model.Sequence;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SequenceRepository
+    extends ReactiveMongoRepository<Sequence, String>, SequenceRepositoryCustom {}
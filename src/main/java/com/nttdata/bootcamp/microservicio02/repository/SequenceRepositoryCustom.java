@@ -0,0 +1,8 @@
+package com.nttdata.bootcamp.microservicio02.repository;
+
+import reactor.core.publisher.Mono;
+
+public interface SequenceRepositoryCustom {
+
+  Mono<Long> reserveBlock(String name, int size);
+}
@@ -0,0 +1,28 @@
+package com.nttdata.bootcamp.microservicio02.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.nttdata.bootcamp.microservicio02.model.Sequence;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+public class SequenceRepositoryCustomImpl implements SequenceRepositoryCustom {
+
+  @Autowired private ReactiveMongoTemplate reactiveMongoTemplate;
+
+  @Override
+  public Mono<Long> reserveBlock(String name, int size) {
+    // Devuelve el ultimo valor del bloque reservado: (valor - size, valor]
+    return reactiveMongoTemplate
+        .findAndModify(
+            query(where("id").is(name)),
+            new Update().inc("value", size),
+            FindAndModifyOptions.options().returnNew(true).upsert(true),
+            Sequence.class)
+        .map(Sequence::getValue);
+  }
+}
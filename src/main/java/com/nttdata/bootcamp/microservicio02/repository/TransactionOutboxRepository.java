@@ -0,0 +1,9 @@
+package com.nttdata.bootcamp.microservicio02.repository;
+
+import com.nttdata.bootcamp.microservicio02.model.TransactionOutbox;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TransactionOutboxRepository
+    extends ReactiveMongoRepository<TransactionOutbox, String>, TransactionOutboxRepositoryCustom {}
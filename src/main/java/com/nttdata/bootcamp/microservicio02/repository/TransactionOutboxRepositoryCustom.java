@@ -0,0 +1,19 @@
+package com.nttdata.bootcamp.microservicio02.repository;
+
+import com.nttdata.bootcamp.microservicio02.model.TransactionOutbox;
+import java.time.Instant;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface TransactionOutboxRepositoryCustom {
+
+  Flux<TransactionOutbox> findPending(Instant now, int limit);
+
+  Mono<TransactionOutbox> claim(TransactionOutbox entry, Instant leaseUntil);
+
+  Mono<Void> markSent(String id, Instant sentAt);
+
+  Mono<Void> markFailed(String id, int attempts, Instant nextAttemptAt, String error);
+
+  Mono<Void> markDeadLetter(String id, int attempts, String error);
+}
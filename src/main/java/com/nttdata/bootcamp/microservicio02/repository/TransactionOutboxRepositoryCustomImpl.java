@@ -0,0 +1,82 @@
+package com.nttdata.bootcamp.microservicio02.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.nttdata.bootcamp.microservicio02.model.OutboxStatus;
+import com.nttdata.bootcamp.microservicio02.model.TransactionOutbox;
+import java.time.Instant;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class TransactionOutboxRepositoryCustomImpl implements TransactionOutboxRepositoryCustom {
+
+  @Autowired private ReactiveMongoTemplate reactiveMongoTemplate;
+
+  @Override
+  public Flux<TransactionOutbox> findPending(Instant now, int limit) {
+    return reactiveMongoTemplate.find(
+        query(where("status").is(OutboxStatus.PENDING).and("nextAttemptAt").lte(now))
+            .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt"))
+            .limit(limit),
+        TransactionOutbox.class);
+  }
+
+  @Override
+  public Mono<TransactionOutbox> claim(TransactionOutbox entry, Instant leaseUntil) {
+    // Solo un nodo gana el claim: la condicion sobre nextAttemptAt falla para el resto
+    return reactiveMongoTemplate.findAndModify(
+        query(
+            where("_id")
+                .is(entry.getId())
+                .and("status")
+                .is(OutboxStatus.PENDING)
+                .and("nextAttemptAt")
+                .is(entry.getNextAttemptAt())),
+        new Update().set("nextAttemptAt", leaseUntil),
+        FindAndModifyOptions.options().returnNew(true),
+        TransactionOutbox.class);
+  }
+
+  @Override
+  public Mono<Void> markSent(String id, Instant sentAt) {
+    return reactiveMongoTemplate
+        .updateFirst(
+            query(where("_id").is(id)),
+            new Update().set("status", OutboxStatus.SENT).set("sentAt", sentAt),
+            TransactionOutbox.class)
+        .then();
+  }
+
+  @Override
+  public Mono<Void> markFailed(String id, int attempts, Instant nextAttemptAt, String error) {
+    return reactiveMongoTemplate
+        .updateFirst(
+            query(where("_id").is(id).and("status").is(OutboxStatus.PENDING)),
+            new Update()
+                .set("attempts", attempts)
+                .set("nextAttemptAt", nextAttemptAt)
+                .set("lastError", error),
+            TransactionOutbox.class)
+        .then();
+  }
+
+  @Override
+  public Mono<Void> markDeadLetter(String id, int attempts, String error) {
+    // FAILED queda fuera de findPending: se revisa a mano en lugar de reintentarse sin fin
+    return reactiveMongoTemplate
+        .updateFirst(
+            query(where("_id").is(id).and("status").is(OutboxStatus.PENDING)),
+            new Update()
+                .set("status", OutboxStatus.FAILED)
+                .set("attempts", attempts)
+                .set("lastError", error),
+            TransactionOutbox.class)
+        .then();
+  }
+}
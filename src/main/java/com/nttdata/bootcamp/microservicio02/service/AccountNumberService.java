@@ -0,0 +1,8 @@
+package com.nttdata.bootcamp.microservicio02.service;
+
+import reactor.core.publisher.Mono;
+
+public interface AccountNumberService {
+
+  Mono<String> next();
+}
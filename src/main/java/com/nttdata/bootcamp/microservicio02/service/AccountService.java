@@ -1,7 +1,15 @@
 package com.nttdata.bootcamp.microservicio02.service;
 
 import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.model.request.AccountFilter;
+import com.nttdata.bootcamp.microservicio02.model.request.AccountLookupRequest;
 import com.nttdata.bootcamp.microservicio02.model.request.AccountRequest;
+import com.nttdata.bootcamp.microservicio02.model.response.AccountBulkResult;
+import com.nttdata.bootcamp.microservicio02.model.response.AccountLookupResult;
+import com.nttdata.bootcamp.microservicio02.model.response.AccountPage;
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Set;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -9,15 +17,37 @@ public interface AccountService {
 
   Mono<Account> create(AccountRequest account);
 
+  Flux<AccountBulkResult> createAll(Flux<AccountRequest> accounts);
+
   Mono<Account> findById(String accountId);
 
   Flux<Account> findAll();
 
-  Mono<Account> update(Account account, String accountId);
+  // fields: lista separada por comas; solo esos campos (y el id) se leen de Mongo
+
+  Mono<Map<String, Object>> findFieldsById(String accountId, String fields);
+
+  Flux<Map<String, Object>> findAllFields(String fields);
+
+  Flux<Map<String, Object>> findFieldsByCustomerId(String customerId, String fields);
+
+  Flux<AccountLookupResult> lookup(AccountLookupRequest request);
+
+  Mono<AccountPage> findPage(AccountFilter filter, String cursor, Integer size);
 
-  Mono<Account> change(Account account, String accountId);
+  Flux<Account> stream(AccountFilter filter);
 
-  Mono<Account> remove(String accountId);
+  // expectedVersions: versiones de If-Match, o null para no exigir ninguna; vacio nunca coincide
+
+  Mono<Account> update(Account account, String accountId, Set<Long> expectedVersions);
+
+  Mono<Account> change(Account account, String accountId, Set<Long> expectedVersions);
+
+  Mono<Account> remove(String accountId, Set<Long> expectedVersions);
 
   Flux<Account> findByCustomerId(String id);
+
+  Mono<Account> debit(String accountId, BigDecimal amount);
+
+  Mono<Account> credit(String accountId, BigDecimal amount);
 }
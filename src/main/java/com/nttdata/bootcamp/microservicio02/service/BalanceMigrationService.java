@@ -0,0 +1,9 @@
+package com.nttdata.bootcamp.microservicio02.service;
+
+import reactor.core.publisher.Mono;
+
+public interface BalanceMigrationService {
+
+  // Convierte a Decimal128 los importes guardados como texto; devuelve cuantas cuentas cambio
+  Mono<Long> migrate();
+}
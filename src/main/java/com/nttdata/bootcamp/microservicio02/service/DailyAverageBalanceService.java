@@ -0,0 +1,9 @@
+package com.nttdata.bootcamp.microservicio02.service;
+
+import java.time.YearMonth;
+import reactor.core.publisher.Mono;
+
+public interface DailyAverageBalanceService {
+
+  Mono<Long> closePeriod(YearMonth period);
+}
@@ -0,0 +1,17 @@
+package com.nttdata.bootcamp.microservicio02.service;
+
+import com.nttdata.bootcamp.microservicio02.model.response.BalanceSummary;
+import com.nttdata.bootcamp.microservicio02.model.response.CustomerAccountCount;
+import com.nttdata.bootcamp.microservicio02.model.response.PortfolioSnapshot;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReportService {
+
+  // by: accountType, currency o active
+  Flux<BalanceSummary> balances(String by);
+
+  Flux<CustomerAccountCount> accountsByCustomer();
+
+  Mono<PortfolioSnapshot> snapshot();
+}
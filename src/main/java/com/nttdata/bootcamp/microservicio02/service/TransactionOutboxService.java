@@ -0,0 +1,16 @@
+package com.nttdata.bootcamp.microservicio02.service;
+
+import com.nttdata.bootcamp.microservicio02.model.Transaction;
+import com.nttdata.bootcamp.microservicio02.model.TransactionOutbox;
+import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface TransactionOutboxService {
+
+  Mono<TransactionOutbox> enqueue(Transaction transaction);
+
+  Flux<TransactionOutbox> enqueueAll(List<Transaction> transactions);
+
+  Mono<Long> drainPending();
+}
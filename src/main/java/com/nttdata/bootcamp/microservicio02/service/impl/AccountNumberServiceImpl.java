@@ -0,0 +1,115 @@
+package com.nttdata.bootcamp.microservicio02.service.impl;
+
+import com.nttdata.bootcamp.microservicio02.repository.SequenceRepository;
+import com.nttdata.bootcamp.microservicio02.service.AccountNumberService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@Slf4j
+public class AccountNumberServiceImpl implements AccountNumberService {
+
+  public static final String SEQUENCE_NAME = "accountNumber";
+
+  @Autowired private SequenceRepository sequenceRepository;
+
+  @Value("${application.account-number.prefix}")
+  private String prefix;
+
+  @Value("${application.account-number.digits}")
+  private int digits;
+
+  @Value("${application.account-number.block-size}")
+  private int blockSize;
+
+  private final AtomicReference<Block> block = new AtomicReference<>(Block.EMPTY);
+
+  private Mono<Void> renewal;
+
+  @Override
+  public Mono<String> next() {
+    // Los numeros se reparten en local; Mongo solo se consulta al agotar el bloque
+    return Mono.defer(
+        () -> {
+          Block current = block.get();
+          long value = current.take();
+          if (value > 0) {
+            return Mono.just(format(value));
+          }
+          return renew(current).then(next());
+        });
+  }
+
+  private synchronized Mono<Void> renew(Block exhausted) {
+    if (block.get() != exhausted) {
+      return Mono.empty();
+    }
+    // Un unico lease en vuelo compartido por todos los que encontraron el bloque agotado
+    if (renewal == null) {
+      renewal =
+          sequenceRepository
+              .reserveBlock(SEQUENCE_NAME, blockSize)
+              .doOnNext(
+                  last -> {
+                    log.info("Leased account numbers ({}, {}]", last - blockSize, last);
+                    block.set(new Block(last - blockSize + 1, last));
+                  })
+              // Se libera antes de avisar a los que esperan: si agotan el bloque nuevo dentro de
+              // esa senal deben pedir otro lease y no recibir otra vez este ya completado
+              .doOnTerminate(this::clearRenewal)
+              .then()
+              .cache();
+    }
+    return renewal;
+  }
+
+  private synchronized void clearRenewal() {
+    renewal = null;
+  }
+
+  private String format(long value) {
+    String body = prefix + String.format("%0" + digits + "d", value);
+    return body + luhnCheckDigit(body);
+  }
+
+  static int luhnCheckDigit(String number) {
+    int sum = 0;
+    boolean doubleDigit = true;
+    for (int i = number.length() - 1; i >= 0; i--) {
+      int digit = number.charAt(i) - '0';
+      if (doubleDigit) {
+        digit *= 2;
+        if (digit > 9) {
+          digit -= 9;
+        }
+      }
+      sum += digit;
+      doubleDigit = !doubleDigit;
+    }
+    return (10 - sum % 10) % 10;
+  }
+
+  private static final class Block {
+
+    static final Block EMPTY = new Block(1, 0);
+
+    private final AtomicLong next;
+
+    private final long last;
+
+    Block(long first, long last) {
+      this.next = new AtomicLong(first);
+      this.last = last;
+    }
+
+    long take() {
+      long value = next.getAndIncrement();
+      return value <= last ? value : -1;
+    }
+  }
+}
@@ -1,23 +1,48 @@
 package com.nttdata.bootcamp.microservicio02.service.impl;
 
+import com.nttdata.bootcamp.microservicio02.config.AccountCache;
+import com.nttdata.bootcamp.microservicio02.config.AdmissionControl;
+import com.nttdata.bootcamp.microservicio02.config.PageCursor;
+import com.nttdata.bootcamp.microservicio02.config.PipelineMetrics;
 import com.nttdata.bootcamp.microservicio02.config.WebClientHelper;
 import com.nttdata.bootcamp.microservicio02.model.*;
+import com.nttdata.bootcamp.microservicio02.model.request.AccountFilter;
+import com.nttdata.bootcamp.microservicio02.model.request.AccountLookupRequest;
 import com.nttdata.bootcamp.microservicio02.model.request.AccountRequest;
+import com.nttdata.bootcamp.microservicio02.model.response.AccountBulkResult;
+import com.nttdata.bootcamp.microservicio02.model.response.AccountLookupResult;
+import com.nttdata.bootcamp.microservicio02.model.response.AccountPage;
 import com.nttdata.bootcamp.microservicio02.repository.AccountRepository;
+import com.nttdata.bootcamp.microservicio02.service.AccountNumberService;
 import com.nttdata.bootcamp.microservicio02.service.AccountService;
+import com.nttdata.bootcamp.microservicio02.service.TransactionOutboxService;
+import com.nttdata.bootcamp.microservicio02.utils.balance.DailyAverageAccumulator;
 import com.nttdata.bootcamp.microservicio02.utils.constant.ErrorCode;
 import com.nttdata.bootcamp.microservicio02.utils.exception.OperationNoCompletedException;
 import com.nttdata.bootcamp.microservicio02.utils.mapper.AccountMapper;
-import java.lang.reflect.Field;
+import com.nttdata.bootcamp.microservicio02.utils.patch.FieldPatcher;
+import com.nttdata.bootcamp.microservicio02.utils.projection.FieldSelection;
+import com.nttdata.bootcamp.microservicio02.utils.reactive.Speculative;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
-import java.util.Random;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Service;
-import org.springframework.util.ReflectionUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -30,36 +55,219 @@ public class AccountServiceImpl implements AccountService {
   public static final String VIP = "VIP";
   public static final String PYME = "PYME";
 
+  // La identidad de la cuenta no cambia. El saldo, el acumulado del promedio diario y el contador
+  // del periodo solo los mueven los cargos, los abonos y el cierre mensual
+  private static final FieldPatcher<Account> ACCOUNT_PATCHER =
+      FieldPatcher.of(
+          Account.class,
+          "id",
+          "version",
+          "accountNumber",
+          "amountAvailable",
+          "balanceSeconds",
+          "balanceChangedAt",
+          "dailyAveragePeriod",
+          "transactionCount",
+          "transactionPeriod");
+
   @Autowired private AccountRepository accountRepository;
 
   @Autowired private WebClientHelper webClientHelper;
 
+  @Autowired private AdmissionControl admissionControl;
+
+  @Autowired private TransactionOutboxService transactionOutboxService;
+
+  @Autowired private AccountNumberService accountNumberService;
+
+  @Autowired private PipelineMetrics pipelineMetrics;
+
+  @Autowired private AccountCache accountCache;
+
+  @Autowired private PageCursor pageCursor;
+
+  @Value("${application.bulk.concurrency}")
+  private int bulkConcurrency;
+
+  @Value("${application.bulk.batch-size}")
+  private int bulkBatchSize;
+
+  @Value("${application.bulk.max-wait}")
+  private Duration bulkMaxWait;
+
+  @Value("${application.pagination.default-size}")
+  private int pageDefaultSize;
+
+  @Value("${application.pagination.max-size}")
+  private int pageMaxSize;
+
+  @Value("${application.pagination.stream-batch-size}")
+  private int streamBatchSize;
+
+  @Value("${application.lookup.max-size}")
+  private int lookupMaxSize;
+
+  @Value("${application.daily-average.zone}")
+  private ZoneId dailyAverageZone;
+
   @Override
   public Mono<Account> create(AccountRequest accountRequest) {
-    String customerId = accountRequest.getCustomer();
-
     log.info("Create an account in the service.");
+    return pipelineMetrics.service(
+        "create",
+        admissionControl
+            .admit(approveAccount(accountRequest).flatMap(this::createAccount))
+            .onErrorMap(AccountServiceImpl::unavailable)
+            .doOnError(e -> log.error("Error creating account: ", e)));
+  }
+
+  @Override
+  public Flux<AccountBulkResult> createAll(Flux<AccountRequest> accountRequests) {
+    log.info("Create accounts in bulk in the service.");
+    return pipelineMetrics.service(
+        "createAll",
+        accountRequests
+            .index()
+            .flatMap(
+                indexed ->
+                    admissionControl
+                        .admit(approveAccount(indexed.getT2()))
+                        .onErrorMap(AccountServiceImpl::unavailable)
+                        .map(account -> AccountBulkResult.created(indexed.getT1(), account))
+                        .onErrorResume(
+                            error -> Mono.just(AccountBulkResult.failed(indexed.getT1(), error))),
+                bulkConcurrency)
+            .publish(
+                results ->
+                    Flux.merge(
+                        // Los rechazos salen de inmediato; las aprobadas se agrupan en lotes
+                        results.filter(AccountBulkResult::isFailed),
+                        results
+                            .filter(result -> !result.isFailed())
+                            // Backpressure justa: un insertMany lento retiene el lote en vez de
+                            // desbordar el temporizador con un OverflowException
+                            .bufferTimeout(bulkBatchSize, bulkMaxWait, true)
+                            .concatMap(this::insertBatch))));
+  }
+
+  // Cada lote insertado ocupa un permiso: la escritura tambien cuenta para el limite adaptativo
+  private Flux<AccountBulkResult> insertBatch(List<AccountBulkResult> approved) {
+    return admissionControl
+        .admit(writeBatch(approved).collectList())
+        .flatMapIterable(Function.identity())
+        .onErrorResume(
+            error -> {
+              log.error("Error inserting bulk accounts: ", error);
+              return Flux.fromIterable(approved)
+                  .map(result -> AccountBulkResult.failed(result.getIndex(), unavailable(error)));
+            });
+  }
+
+  private Flux<AccountBulkResult> writeBatch(List<AccountBulkResult> approved) {
+    return Flux.fromIterable(approved)
+        .concatMap(result -> assignIdentifiers(result.getAccount()))
+        .collectList()
+        .flatMap(accountRepository::insertAllUnordered)
+        .flatMapMany(
+            writeErrors -> {
+              List<AccountBulkResult> results = new ArrayList<>(approved.size());
+              List<Account> inserted = new ArrayList<>(approved.size());
+              for (int i = 0; i < approved.size(); i++) {
+                AccountBulkResult result = approved.get(i);
+                if (writeErrors.containsKey(i)) {
+                  results.add(
+                      AccountBulkResult.failed(
+                          result.getIndex(), insertErrorCode(writeErrors.get(i))));
+                } else {
+                  results.add(result);
+                  inserted.add(result.getAccount());
+                }
+              }
+              inserted.forEach(accountCache::evict);
+              return enqueueOpeningTransactions(inserted)
+                  .thenMany(Flux.fromIterable(results))
+                  // Sin monto de apertura registrado se deshacen las cuentas del lote;
+                  // enqueueAll ya retiro las entradas del outbox que llego a escribir
+                  .onErrorResume(
+                      error ->
+                          accountRepository.deleteAll(inserted).thenMany(notCreated(approved)));
+            });
+  }
+
+  private Flux<AccountBulkResult> notCreated(List<AccountBulkResult> approved) {
+    return Flux.fromIterable(approved)
+        .map(result -> AccountBulkResult.failed(result.getIndex(), ErrorCode.ACCOUNT_NO_CREATED));
+  }
+
+  // Un fallo de una dependencia, no una regla de negocio, se informa como 503
+  private static Throwable unavailable(Throwable error) {
+    return error instanceof OperationNoCompletedException
+        ? error
+        : OperationNoCompletedException.of(ErrorCode.SERVICE_UNAVAILABLE);
+  }
+
+  private ErrorCode insertErrorCode(String message) {
+    // El indice unico resuelve la carrera entre dos altas concurrentes del mismo tipo
+    return message != null && message.contains(Account.PERSONAL_ACCOUNT_TYPE_INDEX)
+        ? ErrorCode.ACCOUNT_TYPE_ALREADY
+        : ErrorCode.ACCOUNT_NO_CREATED;
+  }
+
+  private Mono<Void> enqueueOpeningTransactions(List<Account> accounts) {
+    List<Transaction> transactions =
+        accounts.stream()
+            .filter(account -> account.getAmountAvailable().compareTo(BigDecimal.ZERO) > 0)
+            .map(this::buildOpeningTransaction)
+            .toList();
+    return transactions.isEmpty()
+        ? Mono.empty()
+        : transactionOutboxService.enqueueAll(transactions).then();
+  }
+
+  // Aplica las reglas de negocio y devuelve la cuenta lista para insertar
+  private Mono<Account> approveAccount(AccountRequest accountRequest) {
+    String customerId = accountRequest.getCustomer();
 
-    if (customerId.isBlank()) {
+    if (customerId == null || customerId.isBlank()) {
       log.warn("Client ID is empty");
       return accountNotAllowed(ErrorCode.INVALID_REQUEST);
     }
     Account account = AccountMapper.accountRequestToAccount(accountRequest);
-    return webClientHelper
-        .findByIdCustomerService(customerId)
-        .flatMap(
-            customer -> {
-              account.setCustomer(customer.getId());
-              return validateExistingAccount(customer, account)
-                  .switchIfEmpty(
-                      createAccountByType(
-                          account, customer)); // Intenta crear solo si no hay cuenta existente
+    return Mono.defer(
+            () -> {
+              // Las consultas que solo necesitan el customerId arrancan junto con la del cliente;
+              // las reglas por tipo de cliente deciden despues cuales se usan.
+              Speculative<Boolean> accountTypeTaken =
+                  Speculative.start(existsAccountOfType(customerId, account.getAccountType()));
+              Speculative<Boolean> cardBankActive =
+                  mayRequireCardBank(account.getAccountType())
+                      ? Speculative.start(customerWithCardBankActive(customerId))
+                      : Speculative.skipped();
+              return webClientHelper
+                  .findByIdCustomerService(customerId)
+                  .flatMap(
+                      customer -> {
+                        account.setCustomer(customer.getId());
+                        account.setCustomerType(customer.getCustomerType());
+                        // Intenta crear solo si no hay cuenta existente
+                        return validateExistingAccount(customer, accountTypeTaken.get())
+                            .switchIfEmpty(
+                                Mono.defer(
+                                    () ->
+                                        createAccountByType(
+                                            account, customer, cardBankActive.get())));
+                      })
+                  .doFinally(
+                      signal -> {
+                        // Cancela las consultas en vuelo que las reglas no llegaron a usar
+                        accountTypeTaken.cancel();
+                        cardBankActive.cancel();
+                      });
             })
-        .switchIfEmpty(accountNotAllowed(ErrorCode.ACCOUNT_NO_CREATED))
-        .doOnError(e -> log.error("Error creating account: ", e));
+        .switchIfEmpty(accountNotAllowed(ErrorCode.ACCOUNT_NO_CREATED));
   }
 
-  private Mono<Account> validateExistingAccount(Customer customer, Account account) {
+  private Mono<Account> validateExistingAccount(Customer customer, Mono<Boolean> accountTypeTaken) {
 
     String customerType = customer.getCustomerType();
 
@@ -69,66 +277,77 @@ public class AccountServiceImpl implements AccountService {
     }
 
     // Si el cliente es personal, verificamos que no tenga una cuenta del mismo tipo.
-    return findByCustomerId(customer.getId())
-        .filter(
-            existingAccount -> existingAccount.getAccountType().equals(account.getAccountType()))
-        .hasElements()
-        .flatMap(
-            exists -> {
-              if (exists) {
-                log.error("The client already has an account of this type");
-                return accountNotAllowed(ErrorCode.ACCOUNT_TYPE_ALREADY);
-              } else {
-                return Mono.empty();
-              }
-            });
+    return accountTypeTaken.flatMap(
+        exists -> {
+          if (exists) {
+            log.error("The client already has an account of this type");
+            return accountNotAllowed(ErrorCode.ACCOUNT_TYPE_ALREADY);
+          } else {
+            return Mono.empty();
+          }
+        });
+  }
+
+  private Mono<Boolean> existsAccountOfType(String customerId, AccountType accountType) {
+    return accountRepository.existsByCustomerAndAccountType(customerId, accountType);
+  }
+
+  private boolean mayRequireCardBank(AccountType accountType) {
+    // VIP solo pide tarjeta para ahorro y PYME solo para corriente
+    return AccountType.SAVING.equals(accountType) || AccountType.CURRENT.equals(accountType);
   }
 
-  private Mono<Account> createAccountByType(Account account, Customer customer) {
+  private Mono<Account> createAccountByType(
+      Account account, Customer customer, Mono<Boolean> cardBankActive) {
     setCommonAccountProperties(account);
 
     switch (customer.getCustomerType()) {
       case PERSONAL:
-        return handlePersonalCustomer(account, customer);
+        return handlePersonalCustomer(account, customer, cardBankActive);
       case BUSINESS:
         assignHoldersAndSigners(account, customer);
-        return handleBusinessCustomer(account, customer);
+        return handleBusinessCustomer(account, customer, cardBankActive);
       default:
         return accountNotAllowed(ErrorCode.ACCOUNT_TYPE_NO_ALLOWED);
     }
   }
 
-  private Mono<Account> handlePersonalCustomer(Account account, Customer customer) {
+  private Mono<Account> handlePersonalCustomer(
+      Account account, Customer customer, Mono<Boolean> cardBankActive) {
     if (VIP.equals(customer.getCustomerSubType())
         && AccountType.SAVING.equals(account.getAccountType())) {
-      return customerWithCardBankActive(customer)
+      return cardBankActive
+          .defaultIfEmpty(false)
           .flatMap(
               allowed -> {
                 if (allowed) {
                   account.setIsDailyAverageMonth(true);
-                  return createAccount(account);
+                  DailyAverageAccumulator.start(Instant.now(), dailyAverageZone).applyTo(account);
+                  return Mono.just(account);
                 } else {
                   return accountNotAllowed(ErrorCode.ACCOUNT_TYPE_NO_ALLOWED);
                 }
               });
     }
-    return createAccount(account);
+    return Mono.just(account);
   }
 
-  private Mono<Account> handleBusinessCustomer(Account account, Customer customer) {
+  private Mono<Account> handleBusinessCustomer(
+      Account account, Customer customer, Mono<Boolean> cardBankActive) {
     return isBusinessAccountAllowed(account.getAccountType())
         .flatMap(
             allowed -> {
               if (allowed) {
                 if (PYME.equals(customer.getCustomerSubType())) {
-                  return customerWithCardBankActive(customer)
+                  return cardBankActive
+                      .defaultIfEmpty(false)
                       .flatMap(
                           exists ->
                               exists
-                                  ? createAccount(account)
+                                  ? Mono.just(account)
                                   : accountNotAllowed(ErrorCode.ACCOUNT_TYPE_NO_ALLOWED));
                 }
-                return createAccount(account);
+                return Mono.just(account);
               } else {
                 return accountNotAllowed(ErrorCode.ACCOUNT_TYPE_NO_ALLOWED);
               }
@@ -136,14 +355,41 @@ public class AccountServiceImpl implements AccountService {
   }
 
   private Mono<Account> createAccount(Account account) {
+    return assignIdentifiers(account)
+        .flatMap(accountRepository::insert)
+        .doOnNext(accountCache::evict)
+        .onErrorResume(
+            DuplicateKeyException.class,
+            error -> accountNotAllowed(insertErrorCode(error.getMessage())))
+        .flatMap(this::enqueueOpeningTransaction);
+  }
 
-    if (account.getAmountAvailable().compareTo(BigDecimal.ZERO) > 0) {
-      webClientHelper
-          .createTransactionWithOpeningAmount(buildOpeningTransaction(account))
-          .subscribe();
-    }
+  // El id y el numero de cuenta se generan solo al insertar, nunca al leer. El id es publico (URLs,
+  // /lookup): se genera con SecureRandom para que no sea predecible
+  private Mono<Account> assignIdentifiers(Account account) {
+    account.setId(UUID.randomUUID().toString());
+    return accountNumberService
+        .next()
+        .map(
+            accountNumber -> {
+              account.setAccountNumber(accountNumber);
+              return account;
+            });
+  }
 
-    return accountRepository.insert(account);
+  private Mono<Account> enqueueOpeningTransaction(Account account) {
+    if (account.getAmountAvailable().compareTo(BigDecimal.ZERO) <= 0) {
+      return Mono.just(account);
+    }
+    // Si no se puede registrar el monto de apertura se deshace la cuenta creada
+    return transactionOutboxService
+        .enqueue(buildOpeningTransaction(account))
+        .thenReturn(account)
+        .onErrorResume(
+            error ->
+                accountRepository
+                    .delete(account)
+                    .then(accountNotAllowed(ErrorCode.ACCOUNT_NO_CREATED)));
   }
 
   private Transaction buildOpeningTransaction(Account account) {
@@ -154,13 +400,9 @@ public class AccountServiceImpl implements AccountService {
     return transaction;
   }
 
-  private Mono<Boolean> customerWithCardBankActive(Customer customer) {
-
-    return webClientHelper
-        .findByIdCreditService(customer.getId())
-        .filter(Credit::getActive)
-        .filter(existingAccount -> existingAccount.getCreditType().equals(CreditType.CARD_BANK))
-        .hasElements();
+  private Mono<Boolean> customerWithCardBankActive(String customerId) {
+    // Las altas concurrentes comparten una sola llamada por lotes al servicio de creditos
+    return webClientHelper.hasActiveCardBank(customerId);
   }
 
   private Mono<Boolean> isBusinessAccountAllowed(AccountType accountType) {
@@ -187,83 +429,346 @@ public class AccountServiceImpl implements AccountService {
   }
 
   private void setCommonAccountProperties(Account account) {
-    Random accountNumberRandom = new Random();
-    account.setAccountNumber(Long.toString(accountNumberRandom.nextLong()));
     account.setCurrency("Soles");
     account.setActive(true);
   }
 
   @Override
   public Mono<Account> findById(String accountId) {
-    return accountRepository.findById(accountId);
+    return pipelineMetrics.service(
+        "findById", accountCache.findById(accountId, accountRepository::findById));
   }
 
   @Override
   public Flux<Account> findAll() {
-    return accountRepository.findAll();
+    return pipelineMetrics.service("findAll", accountRepository.findAll());
   }
 
   @Override
-  public Mono<Account> update(Account account, String accountId) {
-    log.info("Update an account in the service.");
-    return accountRepository
-        .findById(accountId)
-        .flatMap(
-            customerDB -> {
-              account.setId(customerDB.getId());
-              return accountRepository.save(account);
-            })
-        .switchIfEmpty(accountNotAllowed(ErrorCode.ACCOUNT_NO_UPDATE));
+  public Mono<Map<String, Object>> findFieldsById(String accountId, String fields) {
+    return pipelineMetrics.service(
+        "findFieldsById",
+        Flux.defer(() -> findFields(Criteria.where("id").is(accountId), fields)).next());
   }
 
   @Override
-  public Mono<Account> change(Account account, String accountId) {
-    log.info("Change an account in the service.");
+  public Flux<Map<String, Object>> findAllFields(String fields) {
+    return pipelineMetrics.service(
+        "findAllFields", Flux.defer(() -> findFields(new Criteria(), fields)));
+  }
+
+  @Override
+  public Flux<Map<String, Object>> findFieldsByCustomerId(String customerId, String fields) {
+    return pipelineMetrics.service(
+        "findFieldsByCustomerId",
+        Flux.defer(() -> findFields(Criteria.where("customer").is(customerId), fields)));
+  }
+
+  private Flux<Map<String, Object>> findFields(Criteria criteria, String fields) {
+    Set<String> selected;
+    try {
+      selected = FieldSelection.parse(Account.class, fields);
+    } catch (IllegalArgumentException e) {
+      log.warn("Invalid fields: [{}]", fields);
+      return this.<Map<String, Object>>accountNotAllowed(ErrorCode.INVALID_REQUEST).flux();
+    }
+    return accountRepository.findFields(criteria, selected);
+  }
+
+  @Override
+  public Flux<AccountLookupResult> lookup(AccountLookupRequest request) {
+    log.info("Lookup accounts by id in the service.");
+    return pipelineMetrics.service("lookup", Flux.defer(() -> lookupAccounts(request)));
+  }
+
+  private Flux<AccountLookupResult> lookupAccounts(AccountLookupRequest request) {
+    boolean byId = request.getIds() != null && !request.getIds().isEmpty();
+    boolean byNumber =
+        request.getAccountNumbers() != null && !request.getAccountNumbers().isEmpty();
+    if (byId == byNumber) {
+      return this.<AccountLookupResult>accountNotAllowed(ErrorCode.INVALID_REQUEST).flux();
+    }
+    List<String> keys = byId ? request.getIds() : request.getAccountNumbers();
+    if (keys.size() > lookupMaxSize) {
+      return this.<AccountLookupResult>accountNotAllowed(ErrorCode.INVALID_REQUEST).flux();
+    }
+    // Una sola consulta $in; Mongo no respeta el orden, se reordena segun la peticion
+    List<String> distinctKeys = keys.stream().filter(Objects::nonNull).distinct().toList();
+    Flux<Account> accounts =
+        byId
+            ? accountRepository.findAllById(distinctKeys)
+            : accountRepository.findByAccountNumberIn(distinctKeys);
+    Function<Account, String> keyOf = byId ? Account::getId : Account::getAccountNumber;
+    return accounts
+        .collectMap(keyOf)
+        .flatMapIterable(found -> keys.stream().map(key -> lookupResult(key, found)).toList());
+  }
+
+  private static AccountLookupResult lookupResult(String key, Map<String, Account> found) {
+    Account account = key == null ? null : found.get(key);
+    return account == null
+        ? AccountLookupResult.missing(key)
+        : AccountLookupResult.found(key, account);
+  }
+
+  @Override
+  public Mono<AccountPage> findPage(AccountFilter filter, String cursor, Integer size) {
+    return pipelineMetrics.service("findPage", Mono.defer(() -> page(filter, cursor, size)));
+  }
+
+  private Mono<AccountPage> page(AccountFilter filter, String cursor, Integer size) {
+    int pageSize = size == null ? pageDefaultSize : Math.min(size, pageMaxSize);
+    if (pageSize < 1) {
+      return accountNotAllowed(ErrorCode.INVALID_REQUEST);
+    }
+    String afterId;
+    try {
+      afterId = pageCursor.decode(cursor);
+    } catch (IllegalArgumentException e) {
+      log.warn("Invalid page cursor: [{}]", cursor);
+      return accountNotAllowed(ErrorCode.INVALID_REQUEST);
+    }
+    // Se pide un elemento extra para saber si existe una pagina siguiente
     return accountRepository
-        .findById(accountId)
-        .flatMap(
-            entidadExistente -> {
-              // Iterar sobre los campos del objeto entidadExistente
-              Field[] fields = account.getClass().getDeclaredFields();
-              for (Field field : fields) {
-                if ("id".equals(field.getName())) {
-                  continue; // Saltar el campo 'id'
-                }
-                field.setAccessible(true); // Para acceder a campos privados
-                try {
-                  // Verificar si el valor del campo en entidadParcial no es null
-                  Optional.ofNullable(field.get(account))
-                          .ifPresent(value -> ReflectionUtils.setField(field, entidadExistente, value));
-                } catch (IllegalAccessException e) {
-                  e.printStackTrace(); // Manejo de errores si hay problemas con la reflexión
-                }
+        .findPage(filter, afterId, pageSize + 1)
+        .collectList()
+        .map(
+            accounts -> {
+              if (accounts.size() <= pageSize) {
+                return new AccountPage(accounts, null);
               }
-              // Guardar la entidad modificada
-              return accountRepository.save(entidadExistente);
-            })
-        .switchIfEmpty(accountNotAllowed(ErrorCode.ACCOUNT_NO_UPDATE));
+              List<Account> items = accounts.subList(0, pageSize);
+              return new AccountPage(items, pageCursor.encode(items.get(pageSize - 1).getId()));
+            });
   }
 
   @Override
-  public Mono<Account> remove(String customerId) {
+  public Flux<Account> stream(AccountFilter filter) {
+    return pipelineMetrics.service("stream", accountRepository.stream(filter, streamBatchSize));
+  }
+
+  @Override
+  public Mono<Account> update(Account account, String accountId, Set<Long> expectedVersions) {
+    log.info("Update an account in the service.");
+    return pipelineMetrics.service(
+        "update",
+        accountRepository
+            .findById(accountId)
+            .flatMap(customerDB -> checkVersion(customerDB, expectedVersions))
+            .flatMap(
+                customerDB -> {
+                  account.setId(customerDB.getId());
+                  keepManagedFields(account, customerDB);
+                  accountCache.evict(customerDB);
+                  // Solo reemplaza la version leida: otra escritura intermedia no se pisa
+                  return accountRepository
+                      .replace(account, versionOf(customerDB))
+                      .switchIfEmpty(accountNotAllowed(versionConflict(expectedVersions)));
+                })
+            .doOnNext(accountCache::evict)
+            // Sin resultado ni rechazo previo la cuenta no existe
+            .switchIfEmpty(accountNotAllowed(ErrorCode.DATA_NOT_FOUND)));
+  }
+
+  @Override
+  public Mono<Account> change(Account account, String accountId, Set<Long> expectedVersions) {
+    log.info("Change an account in the service.");
+    // Un solo findAndModify con $set de los campos no nulos, sin leer antes la cuenta
+    Update update = ACCOUNT_PATCHER.toUpdate(account);
+    Mono<Account> changed;
+    if (update.getUpdateObject().isEmpty()) {
+      changed =
+          accountRepository
+              .findById(accountId)
+              .flatMap(current -> checkVersion(current, expectedVersions));
+    } else if (expectedVersions == null || expectedVersions.size() == 1) {
+      Long expectedVersion = expectedVersions == null ? null : expectedVersions.iterator().next();
+      changed =
+          accountRepository
+              .patch(accountId, update, expectedVersion)
+              .switchIfEmpty(versionMismatch(accountId, expectedVersion));
+    } else {
+      // Varias etiquetas (o ninguna valida): se lee la version y se condiciona sobre la leida
+      changed =
+          accountRepository
+              .findById(accountId)
+              .flatMap(current -> checkVersion(current, expectedVersions))
+              .flatMap(
+                  current ->
+                      accountRepository
+                          .patch(accountId, update, versionOf(current))
+                          .switchIfEmpty(accountNotAllowed(ErrorCode.PRECONDITION_FAILED)));
+    }
+    return pipelineMetrics.service(
+        "change",
+        changed
+            .doOnNext(accountCache::evict)
+            // Sin resultado ni rechazo previo la cuenta no existe
+            .switchIfEmpty(accountNotAllowed(ErrorCode.DATA_NOT_FOUND)));
+  }
+
+  @Override
+  public Mono<Account> remove(String customerId, Set<Long> expectedVersions) {
     log.info("Delete a customer in the service.");
-    return accountRepository
-        .findById(customerId)
-        .switchIfEmpty(accountNotAllowed(ErrorCode.DATA_NOT_FOUND))
-        .filter(p -> p.getActive().equals(true))
-        .switchIfEmpty(accountNotAllowed(ErrorCode.ACCOUNT_NO_DELETED))
-        .doOnNext(p -> p.setActive(false))
-        .flatMap(accountRepository::save);
+    return pipelineMetrics.service(
+        "remove",
+        accountRepository
+            .findById(customerId)
+            .switchIfEmpty(accountNotAllowed(ErrorCode.DATA_NOT_FOUND))
+            .filter(p -> p.getActive().equals(true))
+            .switchIfEmpty(accountNotAllowed(ErrorCode.ACCOUNT_NO_DELETED))
+            .flatMap(p -> checkVersion(p, expectedVersions))
+            .flatMap(
+                p ->
+                    accountRepository
+                        .patch(p.getId(), new Update().set("active", false), versionOf(p))
+                        .switchIfEmpty(accountNotAllowed(versionConflict(expectedVersions))))
+            .doOnNext(accountCache::evict));
+  }
+
+  // El reemplazo conserva el numero y los campos de saldo leidos; la version garantiza que siguen
+  // vigentes
+  private static void keepManagedFields(Account account, Account stored) {
+    account.setAccountNumber(stored.getAccountNumber());
+    account.setAmountAvailable(stored.getAmountAvailable());
+    account.setBalanceSeconds(stored.getBalanceSeconds());
+    account.setBalanceChangedAt(stored.getBalanceChangedAt());
+    account.setDailyAveragePeriod(stored.getDailyAveragePeriod());
+    account.setTransactionCount(stored.getTransactionCount());
+    account.setTransactionPeriod(stored.getTransactionPeriod());
+  }
+
+  private Mono<Account> checkVersion(Account account, Set<Long> expectedVersions) {
+    return expectedVersions == null || expectedVersions.contains(versionOf(account))
+        ? Mono.just(account)
+        : accountNotAllowed(ErrorCode.PRECONDITION_FAILED);
+  }
+
+  // El patch condicionado no devolvio nada: la cuenta no existe o cambio de version
+  private Mono<Account> versionMismatch(String accountId, Long expectedVersion) {
+    return expectedVersion == null
+        ? Mono.empty()
+        : accountRepository
+            .findById(accountId)
+            .flatMap(current -> accountNotAllowed(ErrorCode.PRECONDITION_FAILED));
+  }
+
+  // Sin If-Match la escritura concurrente es un conflicto; con If-Match, una precondicion fallida
+  private static ErrorCode versionConflict(Set<Long> expectedVersions) {
+    return expectedVersions == null ? ErrorCode.ACCOUNT_CONFLICT : ErrorCode.PRECONDITION_FAILED;
+  }
+
+  private static long versionOf(Account account) {
+    return account.getVersion() == null ? 0L : account.getVersion();
   }
 
   @Override
   public Flux<Account> findByCustomerId(String id) {
-    return accountRepository.findByCustomer(id);
+    return pipelineMetrics.service(
+        "findByCustomerId", accountCache.findByCustomer(id, accountRepository::findByCustomer));
+  }
+
+  @Override
+  public Mono<Account> debit(String accountId, BigDecimal amount) {
+    log.info("Debit an account in the service.");
+    return pipelineMetrics.service("debit", applyMovement(accountId, amount, true));
+  }
+
+  @Override
+  public Mono<Account> credit(String accountId, BigDecimal amount) {
+    log.info("Credit an account in the service.");
+    return pipelineMetrics.service("credit", applyMovement(accountId, amount, false));
+  }
+
+  private Mono<Account> applyMovement(String accountId, BigDecimal amount, boolean debit) {
+    if (amount == null || amount.signum() <= 0) {
+      return accountNotAllowed(ErrorCode.INVALID_REQUEST);
+    }
+    return move(accountId, debit ? amount.negate() : amount, false);
+  }
+
+  private Mono<Account> move(String accountId, BigDecimal amount, boolean prepared) {
+    return Mono.defer(
+        () -> {
+          Instant now = Instant.now();
+          // Misma zona que el promedio diario: ambos periodos cambian de mes en el mismo instante
+          String period = YearMonth.from(now.atZone(dailyAverageZone)).toString();
+          return accountRepository
+              .applyMovement(accountId, amount, period, now)
+              .doOnNext(accountCache::evict)
+              .switchIfEmpty(rejectMovement(accountId, amount, period, now, prepared));
+        });
+  }
+
+  private Mono<Account> rejectMovement(
+      String accountId, BigDecimal amount, String period, Instant now, boolean prepared) {
+    // El movimiento ya se aplico o se rechazo en el servidor; esta lectura solo elige el codigo
+    return Mono.defer(() -> accountRepository.findById(accountId))
+        .switchIfEmpty(accountNotAllowed(ErrorCode.DATA_NOT_FOUND))
+        .flatMap(
+            current -> {
+              ErrorCode rejection = movementRejection(current, amount, period);
+              if (rejection != null) {
+                return accountNotAllowed(rejection);
+              }
+              if (prepared) {
+                return accountNotAllowed(ErrorCode.ACCOUNT_CONFLICT);
+              }
+              // Importes aun en texto o un promedio diario sin cerrar: se preparan y se reintenta
+              return accountRepository
+                  .convertMoneyToDecimal(List.of(accountId))
+                  .then(prepareForMovement(current, now))
+                  .then(Mono.defer(() -> move(accountId, amount, true)));
+            });
+  }
+
+  // Mismas reglas que el filtro de applyMovement, evaluadas sobre la cuenta leida
+  private static ErrorCode movementRejection(Account current, BigDecimal amount, String period) {
+    if (!Boolean.TRUE.equals(current.getActive())) {
+      return ErrorCode.ACCOUNT_INACTIVE;
+    }
+    int transactionCount =
+        period.equals(current.getTransactionPeriod()) && current.getTransactionCount() != null
+            ? current.getTransactionCount()
+            : 0;
+    if (current.getTransactionLimit() != null
+        && transactionCount >= current.getTransactionLimit()) {
+      return ErrorCode.TRANSACTION_LIMIT_EXCEEDED;
+    }
+    BigDecimal commission =
+        current.getCommissionTransactionLimit() != null
+                && current.getCommissionRateForTransactionLimit() != null
+                && transactionCount >= current.getCommissionTransactionLimit()
+            ? BigDecimal.valueOf(current.getCommissionRateForTransactionLimit())
+            : BigDecimal.ZERO;
+    BigDecimal balance =
+        current.getAmountAvailable() == null ? BigDecimal.ZERO : current.getAmountAvailable();
+    if (balance.add(amount).subtract(commission).signum() < 0) {
+      return ErrorCode.INSUFFICIENT_FUNDS;
+    }
+    return null;
+  }
+
+  private Mono<Integer> prepareForMovement(Account current, Instant now) {
+    // Un promedio diario de un mes anterior aun sin cerrar se cierra antes del reintento
+    if (!Boolean.TRUE.equals(current.getIsDailyAverageMonth())) {
+      return Mono.just(0);
+    }
+    return accountRepository.updateDailyAverages(
+        List.of(
+            Pair.of(
+                current,
+                DailyAverageAccumulator.accrue(current, now, dailyAverageZone)
+                    .applyTo(new Update()))));
   }
 
-  private Mono<Account> accountNotAllowed(ErrorCode errorCode) {
-    log.warn("Account type not allowed for this customer");
+  private <T> Mono<T> accountNotAllowed(ErrorCode errorCode) {
+    // Se cuenta al suscribirse: muchos usos van dentro de switchIfEmpty y se ensamblan siempre
     return Mono.error(
-        new OperationNoCompletedException(errorCode.getCode(), errorCode.getMessage()));
+        () -> {
+          log.warn("Account operation rejected: {}", errorCode);
+          pipelineMetrics.rejected(errorCode);
+          return OperationNoCompletedException.of(errorCode);
+        });
   }
 }
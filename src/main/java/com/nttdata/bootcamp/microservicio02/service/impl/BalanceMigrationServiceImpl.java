@@ -0,0 +1,77 @@
+package com.nttdata.bootcamp.microservicio02.service.impl;
+
+import com.nttdata.bootcamp.microservicio02.repository.AccountRepository;
+import com.nttdata.bootcamp.microservicio02.service.BalanceMigrationService;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Migracion en segundo plano de los importes guardados como texto a Decimal128. Recorre la
+ * coleccion por paginas de {@code _id} y convierte cada pagina en el servidor. El propio tipo
+ * del campo marca lo pendiente, asi que la migracion se retoma sola tras un reinicio y varias
+ * instancias pueden ejecutarla a la vez sin pisarse.
+ */
+@Service
+@Slf4j
+public class BalanceMigrationServiceImpl implements BalanceMigrationService {
+
+  @Autowired private AccountRepository accountRepository;
+
+  @Value("${application.balance-migration.enabled}")
+  private boolean enabled;
+
+  @Value("${application.balance-migration.batch-size}")
+  private int batchSize;
+
+  @Value("${application.balance-migration.pause}")
+  private Duration pause;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void migrateOnStartup() {
+    if (!enabled) {
+      return;
+    }
+    migrate()
+        .subscribe(
+            migrated -> log.info("Balance migration finished, {} accounts converted", migrated),
+            error -> log.error("Error migrating balances to Decimal128: ", error));
+  }
+
+  @Override
+  public Mono<Long> migrate() {
+    return Mono.defer(
+        () -> {
+          LongAdder migrated = new LongAdder();
+          // La pausa entre paginas deja sitio al trafico normal sobre la coleccion
+          return convertPage(null, migrated)
+              .expand(
+                  ids ->
+                      ids.size() < batchSize
+                          ? Mono.empty()
+                          : Mono.delay(pause).then(convertPage(ids.get(ids.size() - 1), migrated)))
+              .then(Mono.fromSupplier(migrated::sum));
+        });
+  }
+
+  private Mono<List<String>> convertPage(String afterId, LongAdder migrated) {
+    return accountRepository
+        .findLegacyMoneyIds(afterId, batchSize)
+        .collectList()
+        .flatMap(
+            ids ->
+                ids.isEmpty()
+                    ? Mono.just(ids)
+                    : accountRepository
+                        .convertMoneyToDecimal(ids)
+                        .doOnNext(migrated::add)
+                        .thenReturn(ids));
+  }
+}
@@ -0,0 +1,79 @@
+package com.nttdata.bootcamp.microservicio02.service.impl;
+
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.repository.AccountRepository;
+import com.nttdata.bootcamp.microservicio02.service.DailyAverageBalanceService;
+import com.nttdata.bootcamp.microservicio02.utils.balance.DailyAverageAccumulator;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@Slf4j
+public class DailyAverageBalanceServiceImpl implements DailyAverageBalanceService {
+
+  @Autowired private AccountRepository accountRepository;
+
+  @Value("${application.daily-average.zone}")
+  private ZoneId zone;
+
+  @Value("${application.daily-average.page-size}")
+  private int pageSize;
+
+  @Value("${application.daily-average.concurrency}")
+  private int concurrency;
+
+  @Value("${application.daily-average.max-duration}")
+  private Duration maxDuration;
+
+  @Scheduled(cron = "${application.daily-average.cron}", zone = "${application.daily-average.zone}")
+  public void closePreviousPeriod() {
+    YearMonth period = YearMonth.now(zone).minusMonths(1);
+    closePeriod(period)
+        .subscribe(
+            closed -> log.info("Daily average closed for {} accounts of {}", closed, period),
+            error -> log.error("Error closing daily average of " + period + ": ", error));
+  }
+
+  @Override
+  public Mono<Long> closePeriod(YearMonth period) {
+    log.info("Close daily average balance for period {}", period);
+    // Todos los saldos se acumulan hasta el inicio del mes siguiente
+    Instant periodEnd = DailyAverageAccumulator.startOf(period.plusMonths(1), zone);
+    return nextPage(period.toString(), null)
+        .expand(
+            page ->
+                page.size() < pageSize
+                    ? Mono.empty()
+                    : nextPage(period.toString(), page.get(page.size() - 1).getId()))
+        .take(maxDuration)
+        .flatMap(
+            page -> accountRepository.updateDailyAverages(closeAll(page, periodEnd)), concurrency)
+        .reduce(0L, (closed, modified) -> closed + modified);
+  }
+
+  private Mono<List<Account>> nextPage(String period, String afterId) {
+    return accountRepository.findDailyAveragePage(period, afterId, pageSize).collectList();
+  }
+
+  private List<Pair<Account, Update>> closeAll(List<Account> page, Instant periodEnd) {
+    return page.stream()
+        .map(
+            account ->
+                Pair.of(
+                    account,
+                    DailyAverageAccumulator.accrue(account, periodEnd, zone)
+                        .applyTo(new Update())))
+        .toList();
+  }
+}
@@ -0,0 +1,101 @@
+package com.nttdata.bootcamp.microservicio02.service.impl;
+
+import com.nttdata.bootcamp.microservicio02.config.PipelineMetrics;
+import com.nttdata.bootcamp.microservicio02.model.response.BalanceSummary;
+import com.nttdata.bootcamp.microservicio02.model.response.CustomerAccountCount;
+import com.nttdata.bootcamp.microservicio02.model.response.PortfolioSnapshot;
+import com.nttdata.bootcamp.microservicio02.repository.AccountRepository;
+import com.nttdata.bootcamp.microservicio02.service.ReportService;
+import com.nttdata.bootcamp.microservicio02.utils.constant.ErrorCode;
+import com.nttdata.bootcamp.microservicio02.utils.exception.OperationNoCompletedException;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Slf4j
+public class ReportServiceImpl implements ReportService {
+
+  private static final String ACCOUNT_TYPE = "accountType";
+  private static final String CURRENCY = "currency";
+  private static final String ACTIVE = "active";
+  private static final Set<String> BALANCE_DIMENSIONS = Set.of(ACCOUNT_TYPE, CURRENCY, ACTIVE);
+
+  @Autowired private AccountRepository accountRepository;
+
+  @Autowired private PipelineMetrics pipelineMetrics;
+
+  @Value("${application.reports.cursor-batch-size}")
+  private int cursorBatchSize;
+
+  @Value("${application.reports.snapshot.enabled}")
+  private boolean snapshotEnabled;
+
+  // Ultimo snapshot calculado; null hasta el primer refresco o si esta deshabilitado
+  private final AtomicReference<PortfolioSnapshot> lastSnapshot = new AtomicReference<>();
+
+  private final AtomicBoolean refreshing = new AtomicBoolean();
+
+  @Override
+  public Flux<BalanceSummary> balances(String by) {
+    log.info("Balance report by {} in the service.", by);
+    if (!BALANCE_DIMENSIONS.contains(by)) {
+      return Flux.error(OperationNoCompletedException.of(ErrorCode.INVALID_REQUEST));
+    }
+    return pipelineMetrics.service(
+        "reportBalances", accountRepository.summarizeBalances(by, cursorBatchSize));
+  }
+
+  @Override
+  public Flux<CustomerAccountCount> accountsByCustomer() {
+    log.info("Accounts by customer report in the service.");
+    return pipelineMetrics.service(
+        "reportAccountsByCustomer", accountRepository.countByCustomer(cursorBatchSize));
+  }
+
+  @Override
+  public Mono<PortfolioSnapshot> snapshot() {
+    return Mono.defer(
+        () -> {
+          PortfolioSnapshot snapshot = lastSnapshot.get();
+          return snapshot != null ? Mono.just(snapshot) : buildSnapshot();
+        });
+  }
+
+  @Scheduled(
+      initialDelayString = "${application.reports.snapshot.initial-delay}",
+      fixedDelayString = "${application.reports.snapshot.refresh-interval}")
+  public void refreshSnapshot() {
+    // Un refresco lento no se solapa con el siguiente
+    if (!snapshotEnabled || !refreshing.compareAndSet(false, true)) {
+      return;
+    }
+    buildSnapshot()
+        .doFinally(signal -> refreshing.set(false))
+        .subscribe(
+            snapshot -> {
+              lastSnapshot.set(snapshot);
+              log.info("Portfolio snapshot refreshed at {}", snapshot.getGeneratedAt());
+            },
+            error -> log.error("Error refreshing portfolio snapshot: ", error));
+  }
+
+  private Mono<PortfolioSnapshot> buildSnapshot() {
+    return Mono.zip(
+            balances(ACCOUNT_TYPE).collectList(),
+            balances(CURRENCY).collectList(),
+            balances(ACTIVE).collectList())
+        .map(
+            reports ->
+                new PortfolioSnapshot(
+                    Instant.now(), reports.getT1(), reports.getT2(), reports.getT3()));
+  }
+}
@@ -0,0 +1,189 @@
+package com.nttdata.bootcamp.microservicio02.service.impl;
+
+import com.nttdata.bootcamp.microservicio02.config.WebClientHelper;
+import com.nttdata.bootcamp.microservicio02.model.OutboxStatus;
+import com.nttdata.bootcamp.microservicio02.model.Transaction;
+import com.nttdata.bootcamp.microservicio02.model.TransactionOutbox;
+import com.nttdata.bootcamp.microservicio02.repository.TransactionOutboxRepository;
+import com.nttdata.bootcamp.microservicio02.service.TransactionOutboxService;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+@Service
+@Slf4j
+public class TransactionOutboxServiceImpl implements TransactionOutboxService {
+
+  @Autowired private TransactionOutboxRepository transactionOutboxRepository;
+
+  @Autowired private WebClientHelper webClientHelper;
+
+  @Value("${application.outbox.enabled}")
+  private boolean enabled;
+
+  @Value("${application.outbox.poll-interval}")
+  private Duration pollInterval;
+
+  @Value("${application.outbox.batch-size}")
+  private int batchSize;
+
+  @Value("${application.outbox.concurrency}")
+  private int concurrency;
+
+  @Value("${application.outbox.lease}")
+  private Duration lease;
+
+  @Value("${application.outbox.max-retries}")
+  private int maxRetries;
+
+  @Value("${application.outbox.max-attempts}")
+  private int maxAttempts;
+
+  @Value("${application.outbox.min-backoff}")
+  private Duration minBackoff;
+
+  @Value("${application.outbox.max-backoff}")
+  private Duration maxBackoff;
+
+  private Disposable drainer;
+
+  @Override
+  public Mono<TransactionOutbox> enqueue(Transaction transaction) {
+    log.info("Enqueue opening transaction for account: [{}]", transaction.getAccountId());
+    return transactionOutboxRepository.insert(buildEntry(transaction));
+  }
+
+  @Override
+  public Flux<TransactionOutbox> enqueueAll(List<Transaction> transactions) {
+    log.info("Enqueue {} opening transactions", transactions.size());
+    // Ids asignados en buildEntry: si el insertMany falla a medias se borran las entradas ya
+    // escritas, asi el drenador no envia aperturas de cuentas que el llamador va a deshacer
+    List<TransactionOutbox> entries = transactions.stream().map(this::buildEntry).toList();
+    return transactionOutboxRepository
+        .insert(entries)
+        .onErrorResume(
+            error ->
+                transactionOutboxRepository
+                    .deleteAllById(entries.stream().map(TransactionOutbox::getId).toList())
+                    .then(Mono.error(error)));
+  }
+
+  @Override
+  public Mono<Long> drainPending() {
+    // Mientras el lote venga lleno se sigue drenando sin esperar al siguiente tick
+    return drainBatch()
+        .expand(sent -> sent >= batchSize ? drainBatch() : Mono.empty())
+        .reduce(0L, Long::sum);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void startDrainer() {
+    if (!enabled) {
+      log.warn("Transaction outbox drainer is disabled");
+      return;
+    }
+    drainer =
+        Flux.interval(pollInterval)
+            .onBackpressureDrop()
+            .concatMap(
+                tick ->
+                    drainPending()
+                        .onErrorResume(
+                            error -> {
+                              log.error("Error draining transaction outbox: ", error);
+                              return Mono.empty();
+                            }))
+            .subscribe();
+  }
+
+  @PreDestroy
+  public void stopDrainer() {
+    if (drainer != null) {
+      drainer.dispose();
+    }
+  }
+
+  private Mono<Long> drainBatch() {
+    Instant now = Instant.now();
+    return transactionOutboxRepository
+        .findPending(now, batchSize)
+        .flatMap(entry -> transactionOutboxRepository.claim(entry, now.plus(lease)), concurrency)
+        .flatMap(this::ship, concurrency)
+        .count();
+  }
+
+  private Mono<TransactionOutbox> ship(TransactionOutbox entry) {
+    // El id de la entrada viaja como clave de idempotencia: un timeout tras el commit remoto no
+    // duplica el deposito de apertura al reintentar
+    return webClientHelper
+        .createTransactionWithOpeningAmount(entry.getTransaction(), entry.getId())
+        .retryWhen(
+            Retry.backoff(maxRetries, minBackoff)
+                .maxBackoff(maxBackoff)
+                .filter(error -> !isPermanent(error)))
+        .then(Mono.defer(() -> transactionOutboxRepository.markSent(entry.getId(), Instant.now())))
+        .thenReturn(entry)
+        .onErrorResume(error -> reschedule(entry, error));
+  }
+
+  private Mono<TransactionOutbox> reschedule(TransactionOutbox entry, Throwable error) {
+    int attempts = entry.getAttempts() + 1;
+    if (isPermanent(error) || attempts >= maxAttempts) {
+      log.error(
+          "Opening transaction for account [{}] failed after {} attempts: {}",
+          entry.getTransaction().getAccountId(),
+          attempts,
+          error.getMessage());
+      return transactionOutboxRepository
+          .markDeadLetter(entry.getId(), attempts, error.getMessage())
+          .thenReturn(entry);
+    }
+    log.warn(
+        "Opening transaction for account [{}] not delivered, attempt {}",
+        entry.getTransaction().getAccountId(),
+        attempts);
+    return transactionOutboxRepository
+        .markFailed(
+            entry.getId(), attempts, Instant.now().plus(backoff(attempts)), error.getMessage())
+        .thenReturn(entry);
+  }
+
+  // Un 4xx no cambia al reintentar, salvo timeout de la peticion o exceso de trafico
+  private static boolean isPermanent(Throwable error) {
+    return error instanceof WebClientResponseException exception
+        && exception.getStatusCode().is4xxClientError()
+        && !exception.getStatusCode().isSameCodeAs(HttpStatus.REQUEST_TIMEOUT)
+        && !exception.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+  }
+
+  private Duration backoff(int attempts) {
+    Duration delay = minBackoff.multipliedBy(1L << Math.min(attempts, 20));
+    return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+  }
+
+  private TransactionOutbox buildEntry(Transaction transaction) {
+    Instant now = Instant.now();
+    TransactionOutbox entry = new TransactionOutbox();
+    entry.setId(ObjectId.get().toHexString());
+    entry.setTransaction(transaction);
+    entry.setStatus(OutboxStatus.PENDING);
+    entry.setAttempts(0);
+    entry.setCreatedAt(now);
+    entry.setNextAttemptAt(now);
+    return entry;
+  }
+}
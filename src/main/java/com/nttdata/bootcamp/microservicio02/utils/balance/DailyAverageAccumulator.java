@@ -0,0 +1,91 @@
+package com.nttdata.bootcamp.microservicio02.utils.balance;
+
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Saldo promedio diario incremental: se acumula saldo x segundos en cada cambio de saldo y al
+ * cerrar el mes se divide entre los segundos del mes, sin recorrer el historial.
+ */
+public final class DailyAverageAccumulator {
+
+  private static final int SCALE = 2;
+
+  private DailyAverageAccumulator() {}
+
+  public static Accrual start(Instant now, ZoneId zone) {
+    return new Accrual(BigDecimal.ZERO, now, YearMonth.from(now.atZone(zone)).toString(), null);
+  }
+
+  // Acumula el saldo vigente hasta 'now' cerrando los meses que hayan terminado entretanto
+  public static Accrual accrue(Account account, Instant now, ZoneId zone) {
+    if (account.getDailyAveragePeriod() == null || account.getBalanceChangedAt() == null) {
+      return start(now, zone);
+    }
+    BigDecimal balance = orZero(account.getAmountAvailable());
+    BigDecimal balanceSeconds = orZero(account.getBalanceSeconds());
+    Instant changedAt = account.getBalanceChangedAt();
+    YearMonth period = YearMonth.parse(account.getDailyAveragePeriod());
+    YearMonth current = YearMonth.from(now.atZone(zone));
+    BigDecimal closedAverage = null;
+    while (period.isBefore(current)) {
+      Instant periodStart = startOf(period, zone);
+      Instant periodEnd = startOf(period.plusMonths(1), zone);
+      balanceSeconds = balanceSeconds.add(weighted(balance, changedAt, periodEnd));
+      closedAverage =
+          balanceSeconds.divide(
+              BigDecimal.valueOf(Duration.between(periodStart, periodEnd).getSeconds()),
+              SCALE,
+              RoundingMode.HALF_EVEN);
+      balanceSeconds = BigDecimal.ZERO;
+      changedAt = periodEnd;
+      period = period.plusMonths(1);
+    }
+    balanceSeconds = balanceSeconds.add(weighted(balance, changedAt, now));
+    Instant accruedUntil = now.isAfter(changedAt) ? now : changedAt;
+    return new Accrual(balanceSeconds, accruedUntil, period.toString(), closedAverage);
+  }
+
+  public static Instant startOf(YearMonth period, ZoneId zone) {
+    return period.atDay(1).atStartOfDay(zone).toInstant();
+  }
+
+  private static BigDecimal weighted(BigDecimal balance, Instant from, Instant to) {
+    long seconds = Duration.between(from, to).getSeconds();
+    return seconds > 0 ? balance.multiply(BigDecimal.valueOf(seconds)) : BigDecimal.ZERO;
+  }
+
+  private static BigDecimal orZero(BigDecimal value) {
+    return value == null ? BigDecimal.ZERO : value;
+  }
+
+  public record Accrual(
+      BigDecimal balanceSeconds,
+      Instant balanceChangedAt,
+      String dailyAveragePeriod,
+      BigDecimal closedAverage) {
+
+    public void applyTo(Account account) {
+      account.setBalanceSeconds(balanceSeconds);
+      account.setBalanceChangedAt(balanceChangedAt);
+      account.setDailyAveragePeriod(dailyAveragePeriod);
+    }
+
+    public Update applyTo(Update update) {
+      update
+          .set("balanceSeconds", balanceSeconds)
+          .set("balanceChangedAt", balanceChangedAt)
+          .set("dailyAveragePeriod", dailyAveragePeriod);
+      if (closedAverage != null) {
+        update.set("dailyAverageMonth", closedAverage);
+      }
+      return update;
+    }
+  }
+}
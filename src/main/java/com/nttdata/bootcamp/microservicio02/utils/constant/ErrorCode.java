@@ -8,12 +8,17 @@ import lombok.Getter;
 public enum ErrorCode {
   DATA_NOT_FOUND("404", "Data not found"),
   INVALID_REQUEST("400", "Invalid request parameters"),
-  ACCOUNT_NO_CREATED("404", "The account was not created"),
-  ACCOUNT_TYPE_ALREADY("404", "The client already has an account of this type"),
-  ACCOUNT_NO_UPDATE("404", "The account was not update"),
-  ACCOUNT_NO_DELETED("404", "The account was not deleted"),
-  ACCOUNT_NO_COMPLETED("404", "Operación no completada"),
-  ACCOUNT_TYPE_NO_ALLOWED("404", "Account type not allowed for this customer"),
+  ACCOUNT_NO_CREATED("422", "The account was not created"),
+  ACCOUNT_TYPE_ALREADY("409", "The client already has an account of this type"),
+  ACCOUNT_NO_UPDATE("422", "The account was not update"),
+  ACCOUNT_NO_DELETED("422", "The account was not deleted"),
+  ACCOUNT_NO_COMPLETED("422", "Operación no completada"),
+  ACCOUNT_TYPE_NO_ALLOWED("422", "Account type not allowed for this customer"),
+  ACCOUNT_INACTIVE("400", "The account is not active"),
+  INSUFFICIENT_FUNDS("400", "Insufficient funds"),
+  TRANSACTION_LIMIT_EXCEEDED("400", "Transaction limit exceeded for this period"),
+  ACCOUNT_CONFLICT("409", "The account was modified concurrently"),
+  PRECONDITION_FAILED("412", "The account version does not match"),
 
   INTERNAL_SERVER_ERROR("500", "Internal server error"),
   SERVICE_UNAVAILABLE("503", "Service unavailable");
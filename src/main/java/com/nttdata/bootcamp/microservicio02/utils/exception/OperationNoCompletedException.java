@@ -1,12 +1,39 @@
 package com.nttdata.bootcamp.microservicio02.utils.exception;
 
-import lombok.AllArgsConstructor;
+import com.nttdata.bootcamp.microservicio02.utils.constant.ErrorCode;
+import java.util.EnumMap;
+import java.util.Map;
 import lombok.Getter;
 
+/**
+ * Rechazo de negocio. Es parte del trafico normal, asi que no captura stack trace y se reutiliza
+ * una instancia inmutable por {@link ErrorCode}.
+ */
 @Getter
-@AllArgsConstructor
 public class OperationNoCompletedException extends RuntimeException {
 
+  private static final Map<ErrorCode, OperationNoCompletedException> INSTANCES =
+      new EnumMap<>(ErrorCode.class);
+
+  static {
+    for (ErrorCode errorCode : ErrorCode.values()) {
+      INSTANCES.put(errorCode, new OperationNoCompletedException(errorCode));
+    }
+  }
+
+  private final ErrorCode error;
   private final String errorCode;
   private final String errorMessage;
+
+  private OperationNoCompletedException(ErrorCode error) {
+    // Sin causa, sin suppressed y sin stack: la instancia compartida no se puede modificar
+    super(error.getMessage(), null, false, false);
+    this.error = error;
+    this.errorCode = error.getCode();
+    this.errorMessage = error.getMessage();
+  }
+
+  public static OperationNoCompletedException of(ErrorCode errorCode) {
+    return INSTANCES.get(errorCode);
+  }
 }
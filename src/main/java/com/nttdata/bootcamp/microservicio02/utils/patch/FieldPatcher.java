@@ -0,0 +1,88 @@
+package com.nttdata.bootcamp.microservicio02.utils.patch;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Convierte los campos no nulos de un objeto parcial en un unico {@code $set}. Un campo que
+ * conserva el valor con el que lo inicializa el constructor sin argumentos (p. ej. una lista vacia)
+ * tampoco se incluye: el cliente no lo envio. Los accesos a los campos se resuelven una sola vez
+ * por clase.
+ */
+public final class FieldPatcher<T> {
+
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private final List<FieldAccessor> accessors;
+
+  private FieldPatcher(List<FieldAccessor> accessors) {
+    this.accessors = accessors;
+  }
+
+  public static <T> FieldPatcher<T> of(Class<T> type, String... excludedFields) {
+    Set<String> excluded = new HashSet<>(Set.of(excludedFields));
+    List<FieldAccessor> accessors = new ArrayList<>();
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+      Object defaults = defaultsOf(type);
+      for (Field field : type.getDeclaredFields()) {
+        if (Modifier.isStatic(field.getModifiers())
+            || field.isSynthetic()
+            || excluded.remove(field.getName())) {
+          continue;
+        }
+        MethodHandle getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+        Object defaultValue = defaults == null ? null : (Object) getter.invokeExact(defaults);
+        accessors.add(new FieldAccessor(field.getName(), getter, defaultValue));
+      }
+    } catch (Throwable e) {
+      throw new IllegalStateException("Cannot build field patcher for " + type.getName(), e);
+    }
+    // Un nombre mal escrito dejaria el campo modificable sin aviso
+    if (!excluded.isEmpty()) {
+      throw new IllegalArgumentException("Unknown fields of " + type.getName() + ": " + excluded);
+    }
+    return new FieldPatcher<>(List.copyOf(accessors));
+  }
+
+  private static Object defaultsOf(Class<?> type) throws ReflectiveOperationException {
+    try {
+      Constructor<?> constructor = type.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      return constructor.newInstance();
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  public Update toUpdate(T patch) {
+    Update update = new Update();
+    for (FieldAccessor accessor : accessors) {
+      Object value = accessor.get(patch);
+      if (value != null && !value.equals(accessor.defaultValue())) {
+        update.set(accessor.name(), value);
+      }
+    }
+    return update;
+  }
+
+  private record FieldAccessor(String name, MethodHandle getter, Object defaultValue) {
+
+    Object get(Object target) {
+      try {
+        return (Object) getter.invokeExact(target);
+      } catch (Throwable e) {
+        throw new IllegalStateException("Cannot read field " + name, e);
+      }
+    }
+  }
+}
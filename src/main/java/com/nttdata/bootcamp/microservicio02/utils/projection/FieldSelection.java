@@ -0,0 +1,40 @@
+package com.nttdata.bootcamp.microservicio02.utils.projection;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Lista de campos pedida con {@code fields=a,b,c}. El id se incluye siempre y en primer lugar para
+ * que cada elemento de la respuesta siga siendo identificable.
+ */
+public final class FieldSelection {
+
+  private static final String ID = "id";
+
+  private FieldSelection() {}
+
+  public static Set<String> parse(Class<?> type, String fields) {
+    Set<String> known =
+        Arrays.stream(type.getDeclaredFields())
+            .filter(field -> !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+            .map(Field::getName)
+            .collect(Collectors.toSet());
+    Set<String> selected = new LinkedHashSet<>();
+    selected.add(ID);
+    for (String field : fields.split(",")) {
+      String name = field.trim();
+      if (name.isEmpty()) {
+        continue;
+      }
+      if (!known.contains(name)) {
+        throw new IllegalArgumentException("Unknown field " + name);
+      }
+      selected.add(name);
+    }
+    return selected;
+  }
+}
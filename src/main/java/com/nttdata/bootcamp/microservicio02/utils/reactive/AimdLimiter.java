@@ -0,0 +1,94 @@
+package com.nttdata.bootcamp.microservicio02.utils.reactive;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de concurrencia AIMD: crece en 1 por cada "limite" de respuestas rapidas y se reduce de
+ * forma multiplicativa cuando la latencia supera el objetivo o la dependencia falla. La reduccion
+ * se aplica como mucho una vez por cada latencia objetivo, para que una rafaga de respuestas
+ * lentas no lo lleve al minimo de golpe.
+ */
+public final class AimdLimiter {
+
+  private final int minLimit;
+
+  private final int maxLimit;
+
+  private final long targetLatencyNanos;
+
+  private final double backoffRatio;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private volatile double limit;
+
+  private long lastDecreaseNanos;
+
+  public AimdLimiter(
+      int initialLimit, int minLimit, int maxLimit, Duration targetLatency, double backoffRatio) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.targetLatencyNanos = targetLatency.toNanos();
+    this.backoffRatio = backoffRatio;
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    this.lastDecreaseNanos = System.nanoTime() - targetLatencyNanos;
+  }
+
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= (int) limit) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  public void onSuccess(long latencyNanos) {
+    int current = inFlight.getAndDecrement();
+    if (latencyNanos > targetLatencyNanos) {
+      decrease();
+    } else {
+      increase(current);
+    }
+  }
+
+  // Timeout o error de una dependencia: senal de congestion
+  public void onDropped() {
+    inFlight.decrementAndGet();
+    decrease();
+  }
+
+  // Cancelada por el cliente: libera el lugar sin cambiar el limite
+  public void onIgnore() {
+    inFlight.decrementAndGet();
+  }
+
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  private synchronized void increase(int inFlightAtCompletion) {
+    // Solo crece si se esta usando; con poco trafico el limite no dice nada de la capacidad
+    if (inFlightAtCompletion * 2 < limit) {
+      return;
+    }
+    limit = Math.min(maxLimit, limit + 1.0 / limit);
+  }
+
+  private synchronized void decrease() {
+    long now = System.nanoTime();
+    if (now - lastDecreaseNanos < targetLatencyNanos) {
+      return;
+    }
+    lastDecreaseNanos = now;
+    limit = Math.max(minLimit, limit * backoffRatio);
+  }
+}
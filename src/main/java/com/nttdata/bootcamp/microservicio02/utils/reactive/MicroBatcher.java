@@ -0,0 +1,170 @@
+package com.nttdata.bootcamp.microservicio02.utils.reactive;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Agrupa las consultas concurrentes por clave hasta {@code maxSize} claves o {@code maxWait}, las
+ * resuelve con una sola llamada por lote y reparte cada respuesta a quien la pidio. Si el lote
+ * falla, o no trae alguna clave, esas claves se resuelven una por una. Una consulta que no recibe
+ * respuesta en {@code callerTimeout} tambien se resuelve sola.
+ */
+@Slf4j
+public final class MicroBatcher<K, V> implements Disposable {
+
+  // Varios hilos emiten a la vez: se reintenta en lugar de fallar con FAIL_NON_SERIALIZED
+  private static final Duration CONCURRENT_EMIT_SPIN = Duration.ofMillis(100);
+
+  private final String name;
+
+  private final int maxSize;
+
+  private final Duration maxWait;
+
+  private final int concurrency;
+
+  private final Duration callerTimeout;
+
+  private final Function<List<K>, Mono<Map<K, V>>> batchLoader;
+
+  private final Function<K, Mono<V>> singleLoader;
+
+  // Un sink unicast admite un solo suscriptor: cada reinicio del lazo crea uno nuevo
+  private volatile Sinks.Many<Pending<K, V>> requests;
+
+  private volatile Disposable subscription;
+
+  private volatile boolean disposed;
+
+  public MicroBatcher(
+      String name,
+      int maxSize,
+      Duration maxWait,
+      int concurrency,
+      Duration callerTimeout,
+      Function<List<K>, Mono<Map<K, V>>> batchLoader,
+      Function<K, Mono<V>> singleLoader) {
+    this.name = name;
+    this.maxSize = maxSize;
+    this.maxWait = maxWait;
+    this.concurrency = concurrency;
+    this.callerTimeout = callerTimeout;
+    this.batchLoader = batchLoader;
+    this.singleLoader = singleLoader;
+    start();
+  }
+
+  public Mono<V> get(K key) {
+    if (key == null) {
+      return singleLoader.apply(null);
+    }
+    return Mono.defer(
+        () -> {
+          Sinks.One<V> result = Sinks.one();
+          if (!enqueue(new Pending<>(key, result))) {
+            return singleLoader.apply(key);
+          }
+          return result
+              .asMono()
+              .timeout(callerTimeout, Mono.defer(() -> singleLoader.apply(key)));
+        });
+  }
+
+  @Override
+  public void dispose() {
+    disposed = true;
+    subscription.dispose();
+  }
+
+  @Override
+  public boolean isDisposed() {
+    return disposed;
+  }
+
+  private void start() {
+    Sinks.Many<Pending<K, V>> sink = Sinks.many().unicast().onBackpressureBuffer();
+    requests = sink;
+    // Backpressure justa: el temporizador no emite un lote mientras flatMap no pida mas, asi
+    // los lotes lentos no provocan un OverflowException que corte el lazo
+    subscription =
+        sink.asFlux()
+            .bufferTimeout(maxSize, maxWait, true)
+            .flatMap(this::resolve, concurrency)
+            .subscribe(null, this::restart);
+  }
+
+  // Las consultas que quedaron en el sink anterior se resuelven solas al vencer callerTimeout
+  private void restart(Throwable error) {
+    log.error("Batcher [{}] stopped, restarting: {}", name, error.getMessage());
+    if (!disposed) {
+      start();
+    }
+  }
+
+  private boolean enqueue(Pending<K, V> pending) {
+    long deadline = System.nanoTime() + CONCURRENT_EMIT_SPIN.toNanos();
+    while (true) {
+      Sinks.EmitResult emitted = requests.tryEmitNext(pending);
+      if (emitted != Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+        return emitted.isSuccess();
+      }
+      if (System.nanoTime() - deadline > 0) {
+        return false;
+      }
+      Thread.onSpinWait();
+    }
+  }
+
+  private Mono<Void> resolve(List<Pending<K, V>> batch) {
+    // Una clave pedida varias veces en el mismo lote se consulta una sola vez
+    Map<K, List<Sinks.One<V>>> waiting =
+        batch.stream()
+            .collect(
+                Collectors.groupingBy(
+                    Pending::key,
+                    LinkedHashMap::new,
+                    Collectors.mapping(Pending::result, Collectors.toList())));
+    return Mono.defer(() -> batchLoader.apply(List.copyOf(waiting.keySet())))
+        .defaultIfEmpty(Map.of())
+        .onErrorResume(
+            error -> {
+              log.warn(
+                  "Batch [{}] of {} keys failed, resolving one by one: {}",
+                  name,
+                  waiting.size(),
+                  error.getMessage());
+              return Mono.just(Map.of());
+            })
+        .flatMapMany(
+            values ->
+                Flux.fromIterable(waiting.entrySet())
+                    .flatMap(
+                        entry ->
+                            complete(
+                                entry.getValue(),
+                                values.containsKey(entry.getKey())
+                                    ? Mono.justOrEmpty(values.get(entry.getKey()))
+                                    : Mono.defer(() -> singleLoader.apply(entry.getKey())))))
+        .then();
+  }
+
+  private static <V> Mono<Void> complete(List<Sinks.One<V>> results, Mono<V> value) {
+    return value
+        .doOnNext(v -> results.forEach(result -> result.tryEmitValue(v)))
+        .doOnError(error -> results.forEach(result -> result.tryEmitError(error)))
+        .switchIfEmpty(Mono.fromRunnable(() -> results.forEach(Sinks.One::tryEmitEmpty)))
+        .onErrorResume(error -> Mono.empty())
+        .then();
+  }
+
+  private record Pending<K, V>(K key, Sinks.One<V> result) {}
+}
@@ -0,0 +1,35 @@
+package com.nttdata.bootcamp.microservicio02.utils.reactive;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/** Mono que se suscribe en cuanto se crea y se puede cancelar si su resultado no se usa. */
+public final class Speculative<T> {
+
+  private final Sinks.One<T> result = Sinks.one();
+
+  private final Disposable subscription;
+
+  private Speculative(Mono<T> source) {
+    this.subscription =
+        source.subscribe(
+            result::tryEmitValue, result::tryEmitError, () -> result.tryEmitEmpty());
+  }
+
+  public static <T> Speculative<T> start(Mono<T> source) {
+    return new Speculative<>(source);
+  }
+
+  public static <T> Speculative<T> skipped() {
+    return new Speculative<>(Mono.empty());
+  }
+
+  public Mono<T> get() {
+    return result.asMono();
+  }
+
+  public void cancel() {
+    subscription.dispose();
+  }
+}
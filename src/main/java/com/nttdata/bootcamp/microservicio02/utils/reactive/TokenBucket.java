@@ -0,0 +1,31 @@
+package com.nttdata.bootcamp.microservicio02.utils.reactive;
+
+/** Token bucket: {@code permitsPerSecond} sostenidos con rafagas de hasta {@code burst}. */
+public final class TokenBucket {
+
+  private final double permitsPerNano;
+
+  private final double burst;
+
+  private double tokens;
+
+  private long refilledAt;
+
+  public TokenBucket(double permitsPerSecond, double burst) {
+    this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+    this.burst = burst;
+    this.tokens = burst;
+    this.refilledAt = System.nanoTime();
+  }
+
+  public synchronized boolean tryConsume() {
+    long now = System.nanoTime();
+    tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerNano);
+    refilledAt = now;
+    if (tokens < 1) {
+      return false;
+    }
+    tokens -= 1;
+    return true;
+  }
+}
@@ -0,0 +1,172 @@
+package com.nttdata.bootcamp.microservicio02.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@Testcontainers(disabledWithoutDocker = true)
+class AccountCacheTest {
+
+  // MongoDBContainer arranca un replica set de un solo nodo, necesario para los change streams
+  @Container static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+  private MongoClient mongoClient;
+
+  private ReactiveMongoTemplate template;
+
+  private AccountCache accountCache;
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  @BeforeEach
+  void setUp() {
+    mongoClient = MongoClients.create(mongo.getReplicaSetUrl());
+    template = new ReactiveMongoTemplate(mongoClient, "account-cache-test");
+    template.remove(new Query(), Account.class).block();
+
+    accountCache = new AccountCache();
+    ReflectionTestUtils.setField(accountCache, "enabled", true);
+    ReflectionTestUtils.setField(accountCache, "maximumSize", 1_000L);
+    ReflectionTestUtils.setField(accountCache, "ttl", Duration.ofMinutes(5));
+    ReflectionTestUtils.setField(accountCache, "minBackoff", Duration.ofMillis(100));
+    ReflectionTestUtils.setField(accountCache, "maxBackoff", Duration.ofSeconds(1));
+    ReflectionTestUtils.setField(accountCache, "reactiveMongoTemplate", template);
+    ReflectionTestUtils.setField(accountCache, "meterRegistry", new SimpleMeterRegistry());
+    accountCache.init();
+    accountCache.startListening();
+    awaitChangeStream();
+  }
+
+  @AfterEach
+  void tearDown() {
+    accountCache.stopListening();
+    mongoClient.close();
+  }
+
+  @Test
+  void servesRepeatedReadsFromCache() {
+    Account account = insert("customer-1", "10");
+    loads.set(0);
+
+    findById(account.getId()).block();
+    findById(account.getId()).block();
+
+    assertThat(loads).hasValue(1);
+  }
+
+  @Test
+  void invalidatesAccountWrittenByAnotherNode() {
+    Account account = insert("customer-1", "10");
+    findById(account.getId()).block();
+
+    template
+        .updateFirst(
+            query(where("id").is(account.getId())),
+            Update.update("amountAvailable", new BigDecimal("20")),
+            Account.class)
+        .block();
+
+    eventually(
+        () ->
+            findById(account.getId())
+                .map(cached -> new BigDecimal("20").compareTo(cached.getAmountAvailable()) == 0));
+  }
+
+  @Test
+  void invalidatesCustomerListWhenAnAccountIsAdded() {
+    insert("customer-1", "10");
+    assertThat(findByCustomer("customer-1").count().block()).isEqualTo(1L);
+
+    insert("customer-1", "30");
+
+    eventually(() -> findByCustomer("customer-1").count().map(count -> count == 2L));
+  }
+
+  @Test
+  void invalidatesDeletedAccount() {
+    Account account = insert("customer-1", "10");
+    findById(account.getId()).block();
+    findByCustomer("customer-1").collectList().block();
+
+    template.remove(query(where("id").is(account.getId())), Account.class).block();
+
+    eventually(() -> findById(account.getId()).hasElement().map(found -> !found));
+    eventually(() -> findByCustomer("customer-1").hasElements().map(found -> !found));
+  }
+
+  private Mono<Account> findById(String id) {
+    return accountCache.findById(
+        id,
+        key -> {
+          loads.incrementAndGet();
+          return template.findById(key, Account.class);
+        });
+  }
+
+  private Flux<Account> findByCustomer(String customer) {
+    return accountCache.findByCustomer(
+        customer, key -> template.find(query(where("customer").is(key)), Account.class));
+  }
+
+  private Account insert(String customer, String amount) {
+    Account account = new Account();
+    account.setId(UUID.randomUUID().toString());
+    account.setCustomer(customer);
+    account.setAmountAvailable(new BigDecimal(amount));
+    account.setActive(true);
+    return template.insert(account).block();
+  }
+
+  // El cursor se abre de forma asincrona: se espera a que una escritura invalide una sonda
+  private void awaitChangeStream() {
+    Account probe = insert("probe", "0");
+    AtomicInteger version = new AtomicInteger();
+    eventually(
+        () ->
+            findById(probe.getId())
+                .flatMap(
+                    cached ->
+                        template
+                            .updateFirst(
+                                query(where("id").is(probe.getId())),
+                                Update.update("transactionCount", version.incrementAndGet()),
+                                Account.class)
+                            .then(Mono.delay(Duration.ofMillis(200)))
+                            .then(findById(probe.getId()))
+                            .map(reloaded -> reloaded.getTransactionCount() != null)));
+    template.remove(query(where("id").is(probe.getId())), Account.class).block();
+  }
+
+  private void eventually(Supplier<Mono<Boolean>> condition) {
+    StepVerifier.create(
+            Mono.defer(condition)
+                .filter(Boolean::booleanValue)
+                .repeatWhenEmpty(attempts -> attempts.delayElements(Duration.ofMillis(50)))
+                .timeout(Duration.ofSeconds(10)))
+        .expectNext(true)
+        .verifyComplete();
+  }
+}
@@ -0,0 +1,76 @@
+package com.nttdata.bootcamp.microservicio02.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.bootcamp.microservicio02.utils.constant.ErrorCode;
+import com.nttdata.bootcamp.microservicio02.utils.exception.OperationNoCompletedException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class GlobalExceptionHandlerTest {
+
+  private GlobalExceptionHandler handler;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    handler = new GlobalExceptionHandler();
+    ReflectionTestUtils.setField(handler, "objectMapper", new ObjectMapper());
+    handler.init();
+  }
+
+  @Test
+  void duplicatedAccountTypeIsAConflict() {
+    ResponseEntity<byte[]> response = reject(ErrorCode.ACCOUNT_TYPE_ALREADY);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    assertThat(body(response))
+        .isEqualTo(
+            "{\"errorCode\":\"409\","
+                + "\"errorMessage\":\"The client already has an account of this type\"}");
+  }
+
+  @Test
+  void accountTypeNotAllowedIsUnprocessable() {
+    ResponseEntity<byte[]> response = reject(ErrorCode.ACCOUNT_TYPE_NO_ALLOWED);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    assertThat(body(response))
+        .isEqualTo(
+            "{\"errorCode\":\"422\","
+                + "\"errorMessage\":\"Account type not allowed for this customer\"}");
+  }
+
+  @Test
+  void onlyMissingDataIsNotFound() {
+    for (ErrorCode errorCode : ErrorCode.values()) {
+      assertThat(reject(errorCode).getStatusCode() == HttpStatus.NOT_FOUND)
+          .as(errorCode.name())
+          .isEqualTo(errorCode == ErrorCode.DATA_NOT_FOUND);
+    }
+  }
+
+  @Test
+  void unexpectedErrorsAreInternal() {
+    ResponseEntity<byte[]> response =
+        handler.handleGenericException(new IllegalStateException("boom")).block();
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    assertThat(body(response))
+        .isEqualTo("{\"errorCode\":\"500\",\"errorMessage\":\"Internal server error\"}");
+  }
+
+  private ResponseEntity<byte[]> reject(ErrorCode errorCode) {
+    return handler.handleCustomException(OperationNoCompletedException.of(errorCode)).block();
+  }
+
+  private static String body(ResponseEntity<byte[]> response) {
+    return new String(response.getBody(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,83 @@
+package com.nttdata.bootcamp.microservicio02.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PageCursorTest {
+
+  private static final String ID = "3f2c9a4e-7d1b-4c55-9a0e-6b1f0d2e8c71";
+
+  private PageCursor pageCursor;
+
+  @BeforeEach
+  void setUp() {
+    pageCursor = cursorWithKey("test-key");
+  }
+
+  @Test
+  void roundTripsTheLastId() {
+    String cursor = pageCursor.encode(ID);
+
+    assertThat(cursor).doesNotContain(ID).matches("[A-Za-z0-9_-]+\\.[A-Za-z0-9_-]+");
+    assertThat(pageCursor.decode(cursor)).isEqualTo(ID);
+  }
+
+  @Test
+  void missingCursorStartsFromTheBeginning() {
+    assertThat(pageCursor.decode(null)).isNull();
+    assertThat(pageCursor.decode(" ")).isNull();
+  }
+
+  @Test
+  void rejectsMalformedCursors() {
+    assertThatThrownBy(() -> pageCursor.decode("not base64!"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> pageCursor.decode("abc.%%%"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> pageCursor.decode("a.b.c"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> pageCursor.decode(".abc"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void rejectsAnotherIdWithTheOriginalSignature() {
+    String signature = pageCursor.encode(ID).split("\\.")[1];
+    String otherId =
+        Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString("00000000".getBytes(StandardCharsets.UTF_8));
+
+    assertThatThrownBy(() -> pageCursor.decode(otherId + "." + signature))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void rejectsAnUnsignedLegacyCursor() {
+    String unsigned =
+        Base64.getUrlEncoder().withoutPadding().encodeToString(ID.getBytes(StandardCharsets.UTF_8));
+
+    assertThatThrownBy(() -> pageCursor.decode(unsigned))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void rejectsCursorsSignedWithAnotherKey() {
+    String foreign = cursorWithKey("other-key").encode(ID);
+
+    assertThatThrownBy(() -> pageCursor.decode(foreign))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static PageCursor cursorWithKey(String key) {
+    PageCursor cursor = new PageCursor();
+    ReflectionTestUtils.setField(cursor, "key", key);
+    return cursor;
+  }
+}
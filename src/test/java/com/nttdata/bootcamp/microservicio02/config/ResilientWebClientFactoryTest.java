@@ -0,0 +1,129 @@
+package com.nttdata.bootcamp.microservicio02.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+class ResilientWebClientFactoryTest {
+
+  private static final String CLIENT = "stub";
+
+  private DisposableServer server;
+
+  private MeterRegistry meterRegistry;
+
+  private WebClientProperties.Client client;
+
+  private ResilientWebClientFactory factory;
+
+  @BeforeEach
+  void setUp() {
+    // Servicio stub local: /delay/{millis} responde tras la latencia indicada, /error con 503
+    server =
+        HttpServer.create()
+            .port(0)
+            .route(
+                routes ->
+                    routes
+                        .get(
+                            "/delay/{millis}",
+                            (request, response) ->
+                                response.sendString(
+                                    Mono.just("ok")
+                                        .delayElement(
+                                            Duration.ofMillis(
+                                                Long.parseLong(request.param("millis"))))))
+                        .get("/error", (request, response) -> response.status(503).send()))
+            .bindNow();
+    meterRegistry = new SimpleMeterRegistry();
+    client = new WebClientProperties.Client();
+    client.setMaxConnections(10);
+    client.setResponseTimeout(Duration.ofMillis(200));
+    client.setBulkheadMaxConcurrentCalls(10);
+    client.setSlidingWindowSize(4);
+    client.setMinimumNumberOfCalls(4);
+    client.setWaitDurationInOpenState(Duration.ofMinutes(1));
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (factory != null) {
+      factory.destroy();
+    }
+    server.disposeNow();
+  }
+
+  @Test
+  void responseTimeoutFailsSlowCalls() {
+    WebClient webClient = webClient();
+
+    StepVerifier.create(get(webClient, "/delay/1000"))
+        .expectError(WebClientRequestException.class)
+        .verify(Duration.ofSeconds(5));
+    StepVerifier.create(get(webClient, "/delay/0")).expectNext("ok").verifyComplete();
+  }
+
+  @Test
+  void circuitBreakerOpensOnServerErrorsAndFailsFast() {
+    WebClient webClient = webClient();
+
+    for (int i = 0; i < client.getMinimumNumberOfCalls(); i++) {
+      StepVerifier.create(get(webClient, "/error"))
+          .expectError(WebClientResponseException.ServiceUnavailable.class)
+          .verify(Duration.ofSeconds(5));
+    }
+
+    assertThat(factory.circuitBreaker(CLIENT).getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    StepVerifier.create(get(webClient, "/delay/0"))
+        .expectError(CallNotPermittedException.class)
+        .verify(Duration.ofSeconds(1));
+    assertThat(meterRegistry.find("resilience4j.circuitbreaker.state").tag("name", CLIENT).meters())
+        .isNotEmpty();
+  }
+
+  @Test
+  void bulkheadRejectsCallsBeyondTheLimit() {
+    client.setBulkheadMaxConcurrentCalls(2);
+    client.setResponseTimeout(Duration.ofSeconds(2));
+    WebClient webClient = webClient();
+
+    StepVerifier.create(
+            Flux.range(0, 3)
+                .flatMap(
+                    i ->
+                        get(webClient, "/delay/300")
+                            .onErrorReturn(BulkheadFullException.class, "rejected"))
+                .filter("rejected"::equals)
+                .count())
+        .expectNext(1L)
+        .verifyComplete();
+    assertThat(factory.circuitBreaker(CLIENT).getMetrics().getNumberOfFailedCalls()).isZero();
+  }
+
+  private WebClient webClient() {
+    WebClientProperties properties = new WebClientProperties();
+    properties.getClients().put(CLIENT, client);
+    factory = new ResilientWebClientFactory(WebClient.builder(), properties, meterRegistry);
+    return factory.create(CLIENT, "http://localhost:" + server.port());
+  }
+
+  private Mono<String> get(WebClient webClient, String path) {
+    return webClient.get().uri(path).retrieve().bodyToMono(String.class);
+  }
+}
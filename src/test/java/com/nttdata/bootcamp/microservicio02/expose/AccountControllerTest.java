@@ -0,0 +1,191 @@
+package com.nttdata.bootcamp.microservicio02.expose;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nttdata.bootcamp.microservicio02.config.GlobalExceptionHandler;
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.service.AccountService;
+import com.nttdata.bootcamp.microservicio02.utils.constant.ErrorCode;
+import com.nttdata.bootcamp.microservicio02.utils.exception.OperationNoCompletedException;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import reactor.core.publisher.Mono;
+
+class AccountControllerTest {
+
+  private static final String ACCOUNT_ID = "a1";
+
+  private final AccountService accountService = mock(AccountService.class);
+
+  private AnnotationConfigApplicationContext context;
+
+  private WebTestClient webClient;
+
+  @BeforeEach
+  void setUp() {
+    context = new AnnotationConfigApplicationContext();
+    context.register(WebConfig.class, AccountController.class, GlobalExceptionHandler.class);
+    context.registerBean(AccountService.class, () -> accountService);
+    context.registerBean(ObjectMapper.class, () -> new ObjectMapper());
+    context.refresh();
+    webClient = WebTestClient.bindToApplicationContext(context).build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    context.close();
+  }
+
+  @Test
+  void findByIdAnswersWithTheVersionAsStrongETag() {
+    when(accountService.findById(ACCOUNT_ID)).thenReturn(Mono.just(account(3L)));
+
+    webClient
+        .get()
+        .uri("/api/v1/accounts/{id}", ACCOUNT_ID)
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueEquals(HttpHeaders.ETAG, "\"3\"");
+  }
+
+  @Test
+  void matchingIfNoneMatchIsNotModified() {
+    when(accountService.findById(ACCOUNT_ID)).thenReturn(Mono.just(account(3L)));
+
+    webClient
+        .get()
+        .uri("/api/v1/accounts/{id}", ACCOUNT_ID)
+        .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+        .exchange()
+        .expectStatus()
+        .isNotModified()
+        .expectBody()
+        .isEmpty();
+  }
+
+  @Test
+  void staleIfNoneMatchReturnsTheAccount() {
+    when(accountService.findById(ACCOUNT_ID)).thenReturn(Mono.just(account(4L)));
+
+    webClient
+        .get()
+        .uri("/api/v1/accounts/{id}", ACCOUNT_ID)
+        .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectBody()
+        .jsonPath("$.version")
+        .isEqualTo(4);
+  }
+
+  @Test
+  void withoutIfMatchNoVersionIsRequired() {
+    assertThat(expectedVersionsFor(null)).isNull();
+  }
+
+  @Test
+  void wildcardIfMatchRequiresNoVersion() {
+    assertThat(expectedVersionsFor(" * ")).isNull();
+  }
+
+  @Test
+  void ifMatchListKeepsEveryStrongTag() {
+    assertThat(expectedVersionsFor("\"1\", \"7\",\"12\"")).containsExactlyInAnyOrder(1L, 7L, 12L);
+  }
+
+  @Test
+  void ifMatchIgnoresWeakAndForeignTags() {
+    assertThat(expectedVersionsFor("W/\"2\", \"5\", \"abc\", 9")).containsExactly(5L);
+  }
+
+  @Test
+  void onlyWeakIfMatchCanNeverMatch() {
+    // Vacio y no null: el servicio responde 412 en lugar de escribir sin condicion
+    assertThat(expectedVersionsFor("W/\"2\"")).isNotNull().isEmpty();
+  }
+
+  @Test
+  void failedPreconditionIs412() {
+    when(accountService.update(any(), eq(ACCOUNT_ID), any()))
+        .thenReturn(Mono.error(OperationNoCompletedException.of(ErrorCode.PRECONDITION_FAILED)));
+
+    webClient
+        .put()
+        .uri("/api/v1/accounts/{id}", ACCOUNT_ID)
+        .header(HttpHeaders.IF_MATCH, "\"2\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(account(null))
+        .exchange()
+        .expectStatus()
+        .isEqualTo(HttpStatus.PRECONDITION_FAILED)
+        .expectBody()
+        .jsonPath("$.errorCode")
+        .isEqualTo("412");
+  }
+
+  @Test
+  void successfulUpdateReturnsTheNewETag() {
+    when(accountService.update(any(), eq(ACCOUNT_ID), any()))
+        .thenReturn(Mono.just(account(3L)));
+
+    webClient
+        .put()
+        .uri("/api/v1/accounts/{id}", ACCOUNT_ID)
+        .header(HttpHeaders.IF_MATCH, "\"2\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(account(null))
+        .exchange()
+        .expectStatus()
+        .isOk()
+        .expectHeader()
+        .valueEquals(HttpHeaders.ETAG, "\"3\"");
+  }
+
+  @SuppressWarnings("unchecked")
+  private Set<Long> expectedVersionsFor(String ifMatch) {
+    when(accountService.change(any(), eq(ACCOUNT_ID), any())).thenReturn(Mono.just(account(1L)));
+    WebTestClient.RequestBodySpec request =
+        webClient.patch().uri("/api/v1/accounts/{id}", ACCOUNT_ID);
+    if (ifMatch != null) {
+      request.header(HttpHeaders.IF_MATCH, ifMatch);
+    }
+    request
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue(account(null))
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    ArgumentCaptor<Set<Long>> versions = ArgumentCaptor.forClass(Set.class);
+    verify(accountService).change(any(), eq(ACCOUNT_ID), versions.capture());
+    return versions.getValue();
+  }
+
+  private static Account account(Long version) {
+    Account account = new Account();
+    account.setId(ACCOUNT_ID);
+    account.setVersion(version);
+    return account;
+  }
+
+  @EnableWebFlux
+  static class WebConfig {}
+}
@@ -0,0 +1,90 @@
+package com.nttdata.bootcamp.microservicio02.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.nttdata.bootcamp.microservicio02.repository.SequenceRepository;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+class AccountNumberServiceImplTest {
+
+  private static final int BLOCK_SIZE = 10;
+
+  private final SequenceRepository sequenceRepository = mock(SequenceRepository.class);
+
+  private final AtomicLong sequence = new AtomicLong();
+
+  private final AtomicInteger leases = new AtomicInteger();
+
+  private AccountNumberServiceImpl accountNumberService;
+
+  @BeforeEach
+  void setUp() {
+    // Cada lease reserva el siguiente bloque en otro hilo, como la llamada real a Mongo
+    when(sequenceRepository.reserveBlock(
+            eq(AccountNumberServiceImpl.SEQUENCE_NAME), eq(BLOCK_SIZE)))
+        .thenReturn(
+            Mono.fromCallable(
+                    () -> {
+                      leases.incrementAndGet();
+                      return sequence.addAndGet(BLOCK_SIZE);
+                    })
+                .delayElement(Duration.ofMillis(1)));
+    accountNumberService = new AccountNumberServiceImpl();
+    ReflectionTestUtils.setField(accountNumberService, "sequenceRepository", sequenceRepository);
+    ReflectionTestUtils.setField(accountNumberService, "prefix", "191");
+    ReflectionTestUtils.setField(accountNumberService, "digits", 11);
+    ReflectionTestUtils.setField(accountNumberService, "blockSize", BLOCK_SIZE);
+  }
+
+  @Test
+  void luhnCheckDigitMatchesKnownNumbers() {
+    assertThat(AccountNumberServiceImpl.luhnCheckDigit("7992739871")).isEqualTo(3);
+    assertThat(AccountNumberServiceImpl.luhnCheckDigit("411111111111111")).isEqualTo(1);
+    assertThat(AccountNumberServiceImpl.luhnCheckDigit("37828224631000")).isEqualTo(5);
+  }
+
+  @Test
+  void formatsPrefixPaddedValueAndCheckDigit() {
+    assertThat(accountNumberService.next().block()).isEqualTo("191000000000017");
+  }
+
+  @Test
+  void concurrentCallsAcrossBlocksGetUniqueContiguousNumbers() {
+    int count = BLOCK_SIZE * 50 + 3;
+
+    List<String> numbers =
+        Flux.range(0, count)
+            .flatMap(i -> accountNumberService.next().subscribeOn(Schedulers.parallel()), 64)
+            .collectList()
+            .block(Duration.ofSeconds(10));
+
+    assertThat(numbers).hasSize(count).doesNotHaveDuplicates().allMatch(this::hasValidCheckDigit);
+    assertThat(numbers.stream().mapToLong(this::valueOf).sorted())
+        .containsExactlyElementsOf(LongStream.rangeClosed(1, count).boxed().toList());
+    // Un solo lease por bloque: los que encuentran el bloque agotado comparten la renovacion
+    assertThat(leases.get()).isEqualTo(count / BLOCK_SIZE + 1);
+  }
+
+  private boolean hasValidCheckDigit(String number) {
+    String body = number.substring(0, number.length() - 1);
+    return number.charAt(number.length() - 1) - '0'
+        == AccountNumberServiceImpl.luhnCheckDigit(body);
+  }
+
+  private long valueOf(String number) {
+    return Long.parseLong(number.substring(3, number.length() - 1));
+  }
+}
@@ -0,0 +1,162 @@
+package com.nttdata.bootcamp.microservicio02.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.nttdata.bootcamp.microservicio02.config.PageCursor;
+import com.nttdata.bootcamp.microservicio02.config.PipelineMetrics;
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import com.nttdata.bootcamp.microservicio02.model.request.AccountFilter;
+import com.nttdata.bootcamp.microservicio02.model.request.AccountLookupRequest;
+import com.nttdata.bootcamp.microservicio02.model.response.AccountLookupResult;
+import com.nttdata.bootcamp.microservicio02.model.response.AccountPage;
+import com.nttdata.bootcamp.microservicio02.repository.AccountRepository;
+import com.nttdata.bootcamp.microservicio02.utils.constant.ErrorCode;
+import com.nttdata.bootcamp.microservicio02.utils.exception.OperationNoCompletedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class AccountServiceImplTest {
+
+  private final AccountRepository accountRepository = mock(AccountRepository.class);
+
+  private final AccountFilter filter = new AccountFilter();
+
+  private PageCursor pageCursor;
+
+  private AccountServiceImpl accountService;
+
+  @BeforeEach
+  void setUp() {
+    pageCursor = new PageCursor();
+    ReflectionTestUtils.setField(pageCursor, "key", "test-key");
+    PipelineMetrics pipelineMetrics = new PipelineMetrics();
+    ReflectionTestUtils.setField(pipelineMetrics, "meterRegistry", new SimpleMeterRegistry());
+
+    accountService = new AccountServiceImpl();
+    ReflectionTestUtils.setField(accountService, "accountRepository", accountRepository);
+    ReflectionTestUtils.setField(accountService, "pipelineMetrics", pipelineMetrics);
+    ReflectionTestUtils.setField(accountService, "pageCursor", pageCursor);
+    ReflectionTestUtils.setField(accountService, "pageDefaultSize", 2);
+    ReflectionTestUtils.setField(accountService, "pageMaxSize", 10);
+    ReflectionTestUtils.setField(accountService, "lookupMaxSize", 5);
+  }
+
+  @Test
+  void fullPageReturnsACursorThatResumesAfterItsLastId() {
+    when(accountRepository.findPage(eq(filter), isNull(), eq(3)))
+        .thenReturn(Flux.just(account("a"), account("b"), account("c")));
+    when(accountRepository.findPage(eq(filter), eq("b"), eq(3)))
+        .thenReturn(Flux.just(account("c")));
+
+    AccountPage first = accountService.findPage(filter, null, null).block();
+    assertThat(first.getItems()).extracting(Account::getId).containsExactly("a", "b");
+    assertThat(first.getNextCursor()).isNotNull();
+
+    AccountPage second = accountService.findPage(filter, first.getNextCursor(), null).block();
+    assertThat(second.getItems()).extracting(Account::getId).containsExactly("c");
+    assertThat(second.getNextCursor()).isNull();
+  }
+
+  @Test
+  void malformedCursorIsAnInvalidRequest() {
+    StepVerifier.create(accountService.findPage(filter, "%%%", null))
+        .verifyErrorSatisfies(error -> assertRejected(error, ErrorCode.INVALID_REQUEST));
+    verify(accountRepository, never()).findPage(any(), any(), anyInt());
+  }
+
+  @Test
+  void tamperedCursorIsAnInvalidRequest() {
+    String signature = pageCursor.encode("b").split("\\.")[1];
+
+    StepVerifier.create(accountService.findPage(filter, "eg." + signature, null))
+        .verifyErrorSatisfies(error -> assertRejected(error, ErrorCode.INVALID_REQUEST));
+    verify(accountRepository, never()).findPage(any(), any(), anyInt());
+  }
+
+  @Test
+  void lookupKeepsRequestOrderAndMarksUnknownIds() {
+    // Mongo devuelve los documentos en cualquier orden
+    when(accountRepository.findAllById(List.of("c", "x", "a")))
+        .thenReturn(Flux.just(account("a"), account("c")));
+
+    StepVerifier.create(
+            accountService.lookup(new AccountLookupRequest(List.of("c", "x", "a", "c"), null)))
+        .assertNext(result -> assertFound(result, "c"))
+        .assertNext(
+            result -> {
+              assertThat(result.getKey()).isEqualTo("x");
+              assertThat(result.getFound()).isFalse();
+              assertThat(result.getAccount()).isNull();
+              assertThat(result.getErrorCode()).isEqualTo(ErrorCode.DATA_NOT_FOUND.getCode());
+            })
+        .assertNext(result -> assertFound(result, "a"))
+        .assertNext(result -> assertFound(result, "c"))
+        .verifyComplete();
+  }
+
+  @Test
+  void lookupByAccountNumberUsesASingleQuery() {
+    Account account = account("a");
+    account.setAccountNumber("191-1");
+    when(accountRepository.findByAccountNumberIn(List.of("191-2", "191-1")))
+        .thenReturn(Flux.just(account));
+
+    StepVerifier.create(
+            accountService.lookup(new AccountLookupRequest(null, List.of("191-2", "191-1"))))
+        .assertNext(result -> assertThat(result.getFound()).isFalse())
+        .assertNext(result -> assertThat(result.getAccount()).isSameAs(account))
+        .verifyComplete();
+    verify(accountRepository, never()).findAllById(any(Iterable.class));
+  }
+
+  @Test
+  void lookupNeedsExactlyOneListWithinTheLimit() {
+    List<String> ids = List.of("a");
+    for (AccountLookupRequest request :
+        List.of(
+            new AccountLookupRequest(null, null),
+            new AccountLookupRequest(ids, ids),
+            new AccountLookupRequest(List.of("a", "b", "c", "d", "e", "f"), null))) {
+      StepVerifier.create(accountService.lookup(request))
+          .verifyErrorSatisfies(error -> assertRejected(error, ErrorCode.INVALID_REQUEST));
+    }
+  }
+
+  @Test
+  void unknownProjectionFieldIsAnInvalidRequest() {
+    StepVerifier.create(accountService.findFieldsById("a", "active,holders.0"))
+        .verifyErrorSatisfies(error -> assertRejected(error, ErrorCode.INVALID_REQUEST));
+    verify(accountRepository, never()).findFields(any(), any());
+  }
+
+  private static void assertFound(AccountLookupResult result, String id) {
+    assertThat(result.getKey()).isEqualTo(id);
+    assertThat(result.getFound()).isTrue();
+    assertThat(result.getAccount().getId()).isEqualTo(id);
+  }
+
+  private static void assertRejected(Throwable error, ErrorCode errorCode) {
+    assertThat(error).isInstanceOf(OperationNoCompletedException.class);
+    assertThat(((OperationNoCompletedException) error).getError()).isEqualTo(errorCode);
+    assertThat(errorCode.getCode()).isEqualTo("400");
+  }
+
+  private static Account account(String id) {
+    Account account = new Account();
+    account.setId(id);
+    return account;
+  }
+}
@@ -0,0 +1,102 @@
+package com.nttdata.bootcamp.microservicio02.utils.balance;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import org.junit.jupiter.api.Test;
+
+class DailyAverageAccumulatorTest {
+
+  private static final ZoneId LIMA = ZoneId.of("America/Lima");
+
+  private static final YearMonth FEBRUARY = YearMonth.of(2024, 2);
+
+  @Test
+  void startUsesThePeriodOfTheConfiguredZone() {
+    // 2024-03-01T03:00Z todavia es 29 de febrero en Lima (UTC-5)
+    DailyAverageAccumulator.Accrual accrual =
+        DailyAverageAccumulator.start(Instant.parse("2024-03-01T03:00:00Z"), LIMA);
+
+    assertThat(accrual.dailyAveragePeriod()).isEqualTo("2024-02");
+    assertThat(accrual.balanceSeconds()).isEqualByComparingTo("0");
+    assertThat(accrual.closedAverage()).isNull();
+  }
+
+  @Test
+  void accruesBalanceWithinThePeriod() {
+    Instant changedAt = startOf(FEBRUARY).plus(Duration.ofDays(3));
+    Account account = account("100", "50", changedAt, FEBRUARY);
+
+    DailyAverageAccumulator.Accrual accrual =
+        DailyAverageAccumulator.accrue(account, changedAt.plusSeconds(3_600), LIMA);
+
+    assertThat(accrual.balanceSeconds()).isEqualByComparingTo("360050");
+    assertThat(accrual.balanceChangedAt()).isEqualTo(changedAt.plusSeconds(3_600));
+    assertThat(accrual.dailyAveragePeriod()).isEqualTo("2024-02");
+    assertThat(accrual.closedAverage()).isNull();
+  }
+
+  @Test
+  void closesTheMonthAtTheStartOfTheNextOne() {
+    // Medio mes con 100 y medio mes con 0 promedian 50
+    Instant march = startOf(FEBRUARY.plusMonths(1));
+    long halfMonth = Duration.between(startOf(FEBRUARY), march).getSeconds() / 2;
+    Account account =
+        account("0", String.valueOf(100 * halfMonth), march.minusSeconds(halfMonth), FEBRUARY);
+
+    DailyAverageAccumulator.Accrual accrual = DailyAverageAccumulator.accrue(account, march, LIMA);
+
+    assertThat(accrual.closedAverage()).isEqualByComparingTo("50.00");
+    assertThat(accrual.balanceSeconds()).isEqualByComparingTo("0");
+    assertThat(accrual.balanceChangedAt()).isEqualTo(march);
+    assertThat(accrual.dailyAveragePeriod()).isEqualTo("2024-03");
+  }
+
+  @Test
+  void catchesUpSeveralMonthsAndKeepsTheLastClosedAverage() {
+    YearMonth january = YearMonth.of(2024, 1);
+    Account account = account("100", "0", startOf(january).plus(Duration.ofDays(10)), january);
+    Instant now = startOf(YearMonth.of(2024, 3)).plus(Duration.ofDays(9));
+
+    DailyAverageAccumulator.Accrual accrual = DailyAverageAccumulator.accrue(account, now, LIMA);
+
+    // Febrero completo con saldo 100; marzo sigue abierto con 9 dias acumulados
+    assertThat(accrual.closedAverage()).isEqualByComparingTo("100.00");
+    assertThat(accrual.dailyAveragePeriod()).isEqualTo("2024-03");
+    assertThat(accrual.balanceSeconds())
+        .isEqualByComparingTo(BigDecimal.valueOf(100L * Duration.ofDays(9).getSeconds()));
+    assertThat(accrual.balanceChangedAt()).isEqualTo(now);
+  }
+
+  @Test
+  void accountWithoutPeriodStartsFresh() {
+    Instant now = Instant.parse("2024-02-15T12:00:00Z");
+    Account account = new Account();
+    account.setAmountAvailable(new BigDecimal("100"));
+
+    DailyAverageAccumulator.Accrual accrual = DailyAverageAccumulator.accrue(account, now, LIMA);
+
+    assertThat(accrual.balanceSeconds()).isEqualByComparingTo("0");
+    assertThat(accrual.balanceChangedAt()).isEqualTo(now);
+    assertThat(accrual.dailyAveragePeriod()).isEqualTo("2024-02");
+  }
+
+  private static Instant startOf(YearMonth period) {
+    return DailyAverageAccumulator.startOf(period, LIMA);
+  }
+
+  private static Account account(
+      String balance, String balanceSeconds, Instant changedAt, YearMonth period) {
+    Account account = new Account();
+    account.setAmountAvailable(new BigDecimal(balance));
+    account.setBalanceSeconds(new BigDecimal(balanceSeconds));
+    account.setBalanceChangedAt(changedAt);
+    account.setDailyAveragePeriod(period.toString());
+    return account;
+  }
+}
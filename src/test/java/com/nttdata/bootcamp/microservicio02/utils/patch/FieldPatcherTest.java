@@ -0,0 +1,89 @@
+package com.nttdata.bootcamp.microservicio02.utils.patch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+class FieldPatcherTest {
+
+  private static final FieldPatcher<Account> ACCOUNT_PATCHER =
+      FieldPatcher.of(Account.class, "id", "version", "accountNumber");
+
+  @Test
+  void setsOnlyTheFieldsThatWereSent() {
+    Account patch = new Account();
+    patch.setCurrency("PEN");
+    patch.setTransactionLimit(20);
+    patch.setActive(false);
+
+    assertThat(ACCOUNT_PATCHER.toUpdate(patch).getUpdateObject())
+        .isEqualTo(
+            new Document(
+                "$set",
+                new Document("currency", "PEN")
+                    .append("transactionLimit", 20)
+                    .append("active", false)));
+  }
+
+  @Test
+  void emptyPatchProducesNoUpdate() {
+    // Las listas que el constructor inicializa vacias no borran los titulares guardados
+    assertThat(ACCOUNT_PATCHER.toUpdate(new Account()).getUpdateObject()).isEmpty();
+  }
+
+  @Test
+  void listsThatWereSentReplaceTheStoredOnes() {
+    Account patch = new Account();
+    patch.setHolders(new ArrayList<>(List.of("c1", "c2")));
+
+    assertThat(ACCOUNT_PATCHER.toUpdate(patch).getUpdateObject())
+        .isEqualTo(new Document("$set", new Document("holders", List.of("c1", "c2"))));
+  }
+
+  @Test
+  void immutableFieldsAreNeverSet() {
+    Account patch = new Account();
+    patch.setId("other");
+    patch.setVersion(9L);
+    patch.setAccountNumber("191-000");
+    patch.setAmountAvailable(BigDecimal.TEN);
+
+    Document set = (Document) ACCOUNT_PATCHER.toUpdate(patch).getUpdateObject().get("$set");
+
+    assertThat(set).containsOnlyKeys("amountAvailable");
+  }
+
+  @Test
+  void nestedObjectsAreSetAsAWhole() {
+    Holder patch = new Holder();
+    patch.setAddress(new Address("Lima", null));
+
+    // Sin notacion con puntos: el subdocumento enviado reemplaza al guardado
+    assertThat(FieldPatcher.of(Holder.class).toUpdate(patch).getUpdateObject())
+        .isEqualTo(new Document("$set", new Document("address", new Address("Lima", null))));
+  }
+
+  @Test
+  void unknownExcludedFieldsAreRejected() {
+    assertThatThrownBy(() -> FieldPatcher.of(Account.class, "id", "acountNumber"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("acountNumber");
+  }
+
+  record Address(String city, String street) {}
+
+  static class Holder {
+
+    private Address address;
+
+    void setAddress(Address address) {
+      this.address = address;
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.nttdata.bootcamp.microservicio02.utils.projection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.nttdata.bootcamp.microservicio02.model.Account;
+import org.junit.jupiter.api.Test;
+
+class FieldSelectionTest {
+
+  @Test
+  void idComesFirstFollowedByTheRequestedFields() {
+    assertThat(FieldSelection.parse(Account.class, " accountType,amountAvailable , active"))
+        .containsExactly("id", "accountType", "amountAvailable", "active");
+  }
+
+  @Test
+  void blankAndRepeatedNamesAreIgnored() {
+    assertThat(FieldSelection.parse(Account.class, "active,,id, ,active"))
+        .containsExactly("id", "active");
+    assertThat(FieldSelection.parse(Account.class, "")).containsExactly("id");
+  }
+
+  @Test
+  void rejectsFieldsTheEntityDoesNotDeclare() {
+    assertThatThrownBy(() -> FieldSelection.parse(Account.class, "active,password"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("password");
+  }
+
+  @Test
+  void rejectsPathsAndOperatorsThatCouldReachTheProjection() {
+    // Solo nombres de campos de primer nivel: nada de rutas, subdocumentos ni operadores
+    for (String fields : new String[] {"holders.0", "holders.$", "$where", "_id", "Active"}) {
+      assertThatThrownBy(() -> FieldSelection.parse(Account.class, fields))
+          .as(fields)
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  @Test
+  void rejectsStaticConstants() {
+    assertThatThrownBy(() -> FieldSelection.parse(Account.class, "PERSONAL_ACCOUNT_TYPE_INDEX"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
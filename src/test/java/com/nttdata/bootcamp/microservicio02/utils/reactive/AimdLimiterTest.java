@@ -0,0 +1,56 @@
+package com.nttdata.bootcamp.microservicio02.utils.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class AimdLimiterTest {
+
+  private static final Duration TARGET = Duration.ofMillis(100);
+
+  @Test
+  void rejectsOnceTheLimitIsInFlight() {
+    AimdLimiter limiter = new AimdLimiter(2, 1, 10, TARGET, 0.5);
+
+    assertThat(limiter.tryAcquire()).isTrue();
+    assertThat(limiter.tryAcquire()).isTrue();
+    assertThat(limiter.tryAcquire()).isFalse();
+
+    limiter.onIgnore();
+    assertThat(limiter.tryAcquire()).isTrue();
+  }
+
+  @Test
+  void slowResponsesShrinkTheLimitOncePerTargetLatency() {
+    AimdLimiter limiter = new AimdLimiter(8, 1, 10, TARGET, 0.5);
+    acquire(limiter, 2);
+
+    limiter.onSuccess(TARGET.toNanos() * 2);
+    limiter.onDropped();
+
+    assertThat(limiter.getLimit()).isEqualTo(4);
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  @Test
+  void fastResponsesGrowTheLimitWhileItIsUsed() {
+    AimdLimiter limiter = new AimdLimiter(4, 1, 10, TARGET, 0.5);
+
+    for (int i = 0; i < 4; i++) {
+      int permits = limiter.getLimit();
+      acquire(limiter, permits);
+      for (int j = 0; j < permits; j++) {
+        limiter.onSuccess(0);
+      }
+    }
+
+    assertThat(limiter.getLimit()).isGreaterThan(4);
+  }
+
+  private static void acquire(AimdLimiter limiter, int permits) {
+    for (int i = 0; i < permits; i++) {
+      assertThat(limiter.tryAcquire()).isTrue();
+    }
+  }
+}
@@ -0,0 +1,138 @@
+package com.nttdata.bootcamp.microservicio02.utils.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+class MicroBatcherTest {
+
+  private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+  private final AtomicInteger singleCalls = new AtomicInteger();
+
+  private MicroBatcher<String, Integer> batcher;
+
+  @AfterEach
+  void tearDown() {
+    batcher.dispose();
+  }
+
+  @Test
+  void concurrentCallsShareOneBatch() {
+    batcher = batcher(keys -> Mono.just(lengths(keys)));
+
+    StepVerifier.create(getAll("a", "bb", "ccc", "bb"))
+        .expectNext(List.of(1, 2, 3, 2))
+        .verifyComplete();
+    assertThat(batches).hasSize(1);
+    assertThat(batches.get(0)).containsExactlyInAnyOrder("a", "bb", "ccc");
+    assertThat(singleCalls).hasValue(0);
+  }
+
+  @Test
+  void flushesWhenMaxSizeIsReached() {
+    batcher = batcher(keys -> Mono.just(lengths(keys)));
+
+    StepVerifier.create(getAll("1", "2", "3", "4", "5"))
+        .expectNextCount(1)
+        .verifyComplete();
+    assertThat(batches).extracting(List::size).containsExactlyInAnyOrder(4, 1);
+  }
+
+  @Test
+  void failedBatchFallsBackToSingleCalls() {
+    batcher = batcher(keys -> Mono.error(new IllegalStateException("batch unavailable")));
+
+    StepVerifier.create(getAll("a", "bb")).expectNext(List.of(1, 2)).verifyComplete();
+    assertThat(singleCalls).hasValue(2);
+  }
+
+  @Test
+  void keysMissingFromTheBatchFallBackToSingleCalls() {
+    batcher = batcher(keys -> Mono.just(Map.of("a", 1)));
+
+    StepVerifier.create(getAll("a", "bb")).expectNext(List.of(1, 2)).verifyComplete();
+    assertThat(singleCalls).hasValue(1);
+  }
+
+  @Test
+  void slowBatchesDoNotStopTheBatcher() {
+    // Con los dos lotes permitidos en vuelo el temporizador sigue venciendo cada 5 ms
+    batcher =
+        batcher(
+            Duration.ofMillis(5),
+            Duration.ofSeconds(5),
+            keys -> Mono.delay(Duration.ofMillis(100)).thenReturn(lengths(keys)));
+
+    StepVerifier.create(
+            Flux.range(1, 20)
+                .flatMap(
+                    i ->
+                        Mono.delay(Duration.ofMillis(i * 10L))
+                            .then(batcher.get("k".repeat(i))))
+                .collectList()
+                .timeout(Duration.ofSeconds(5)))
+        .assertNext(values -> assertThat(values).hasSize(20))
+        .verifyComplete();
+    StepVerifier.create(getAll("after")).expectNext(List.of(5)).verifyComplete();
+    assertThat(batcher.isDisposed()).isFalse();
+    assertThat(singleCalls).hasValue(0);
+  }
+
+  @Test
+  void callerTimeoutFallsBackToSingleCall() {
+    batcher = batcher(Duration.ofMillis(5), Duration.ofMillis(100), keys -> Mono.never());
+
+    StepVerifier.create(getAll("a", "bb")).expectNext(List.of(1, 2)).verifyComplete();
+    assertThat(singleCalls).hasValue(2);
+  }
+
+  private MicroBatcher<String, Integer> batcher(
+      Function<List<String>, Mono<Map<String, Integer>>> batchLoader) {
+    return batcher(Duration.ofMillis(50), Duration.ofSeconds(5), batchLoader);
+  }
+
+  private MicroBatcher<String, Integer> batcher(
+      Duration maxWait,
+      Duration callerTimeout,
+      Function<List<String>, Mono<Map<String, Integer>>> batchLoader) {
+    return new MicroBatcher<>(
+        "test",
+        4,
+        maxWait,
+        2,
+        callerTimeout,
+        keys -> {
+          batches.add(keys);
+          return batchLoader.apply(keys);
+        },
+        key -> {
+          singleCalls.incrementAndGet();
+          return Mono.just(key.length());
+        });
+  }
+
+  // Cada get se suscribe desde un hilo distinto, como las peticiones concurrentes reales
+  private Mono<List<Integer>> getAll(String... keys) {
+    return Flux.fromArray(keys)
+        .flatMapSequential(key -> batcher.get(key).subscribeOn(Schedulers.parallel()))
+        .collectList()
+        .timeout(Duration.ofSeconds(5));
+  }
+
+  private static Map<String, Integer> lengths(List<String> keys) {
+    return keys.stream().collect(Collectors.toMap(Function.identity(), String::length));
+  }
+}